@@ -0,0 +1,82 @@
+package com.donesvad.benchmarks;
+
+import com.donesvad.rest.client.ApiClient;
+import com.donesvad.rest.client.ApiClientOptions;
+import com.donesvad.rest.config.JacksonConfig;
+import com.donesvad.rest.config.RestAssuredJacksonConfig;
+import com.donesvad.rest.dto.vcs.VersionedSettingsConfigRequest;
+import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import io.restassured.RestAssured;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call overhead of {@link ApiClient} itself: request construction (spec merge, filters, body
+ * serialization), limiter, retry wrapper and metrics, measured with tiny bodies against the
+ * loopback stub so the network and Jackson on large payloads are not what is being timed. {@link
+ * #restAssuredGet()} is the same GET through plain REST Assured, i.e. the floor the client adds to.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ApiClientBenchmark {
+
+  private static final String PROJECT = TeamCityEndpoints.projectById("Bench");
+  private static final String CONFIG = TeamCityEndpoints.projectVsConfig("Bench");
+  private static final VersionedSettingsConfigRequest SETTINGS =
+      VersionedSettingsConfigRequest.builder()
+          .format("kotlin")
+          .synchronizationMode("enabled")
+          .allowUIEditing(true)
+          .portableDsl(true)
+          .vcsRootId("Bench_DslRepo")
+          .buildSettingsMode("useFromVCS")
+          .importDecision("IMPORT")
+          .build();
+
+  private StubTeamCity stub;
+  private ApiClient api;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    stub = new StubTeamCity(0).json(PROJECT, Payloads.project("Bench"));
+    RestAssured.baseURI = stub.baseUrl();
+    new RestAssuredJacksonConfig(new JacksonConfig().objectMapper()).init();
+    api = new ApiClient("bench", "bench", ApiClientOptions.builder().coalesceGets(false).build());
+  }
+
+  @Benchmark
+  public int get() {
+    return api.get(PROJECT).statusCode();
+  }
+
+  @Benchmark
+  public byte[] restAssuredGet() {
+    return RestAssured.given().get(PROJECT).asByteArray();
+  }
+
+  @Benchmark
+  public int putDto() {
+    return api.put(CONFIG, SETTINGS).statusCode();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    api.close();
+    stub.close();
+  }
+}
@@ -0,0 +1,23 @@
+package com.donesvad.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of {@code benchmarks.jar}: the regular JMH command line with the GC profiler always
+ * on, so every run reports allocation rates ({@code gc.alloc.rate.norm} = bytes per operation)
+ * next to the timings.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar [JMH options] [benchmark regexp]</pre>
+ */
+public final class Benchmarks {
+
+  private Benchmarks() {}
+
+  public static void main(String[] args) throws Exception {
+    CommandLineOptions cli = new CommandLineOptions(args);
+    new Runner(new OptionsBuilder().parent(cli).addProfiler(GCProfiler.class).build()).run();
+  }
+}
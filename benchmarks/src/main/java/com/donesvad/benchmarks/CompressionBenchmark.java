@@ -0,0 +1,101 @@
+package com.donesvad.benchmarks;
+
+import com.donesvad.rest.client.ApiClient;
+import com.donesvad.rest.client.ApiClientOptions;
+import com.donesvad.rest.client.CompressionSettings;
+import com.donesvad.rest.client.TeamCityClient;
+import com.donesvad.rest.config.JacksonConfig;
+import com.donesvad.rest.config.RestAssuredJacksonConfig;
+import com.donesvad.rest.dto.project.ProjectsDto;
+import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Where does HTTP compression pay off? Fetches a projects listing of {@code payloadKb} (decoded
+ * with Jackson) and sends a body of the same size, with and without gzip, over unthrottled
+ * loopback and over an emulated link of {@code bandwidthMbps}. On loopback compression is pure CPU
+ * cost; on a real link it wins once the transfer time saved exceeds the (de)compression time.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar CompressionBenchmark</pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompressionBenchmark {
+
+  private static final String PARAMETERS = TeamCityEndpoints.buildTypeParameters("Bench_Build");
+
+  @Param({"1", "16", "256", "2048"})
+  int payloadKb;
+
+  @Param({"identity", "gzip"})
+  String encoding;
+
+  /** 0 = unthrottled loopback. */
+  @Param({"0", "100"})
+  int bandwidthMbps;
+
+  private StubTeamCity stub;
+  private ApiClient api;
+  private TeamCityClient client;
+  private String requestBody;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    byte[] projects = Payloads.projectsOfSize(payloadKb);
+    stub = new StubTeamCity(bandwidthMbps).json(TeamCityEndpoints.PROJECTS, projects);
+    requestBody = new String(projects, StandardCharsets.UTF_8);
+    System.out.printf(
+        "%npayload %d bytes, gzip %d bytes%n",
+        projects.length, StubTeamCity.gzip(projects).length);
+
+    ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    RestAssured.baseURI = stub.baseUrl();
+    new RestAssuredJacksonConfig(objectMapper).init();
+    boolean gzip = encoding.equals("gzip");
+    api =
+        new ApiClient(
+            "bench",
+            "bench",
+            ApiClientOptions.builder()
+                .coalesceGets(false)
+                .compression(new CompressionSettings(gzip, gzip, 1024))
+                .build());
+    client = new TeamCityClient(api, objectMapper);
+  }
+
+  @Benchmark
+  public ProjectsDto getProjects() {
+    return client.getProjects();
+  }
+
+  @Benchmark
+  public int putLargeBody() {
+    return api.put(PARAMETERS, requestBody).statusCode();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    api.close();
+    stub.close();
+  }
+}
@@ -0,0 +1,54 @@
+package com.donesvad.benchmarks;
+
+import com.donesvad.rest.endpoints.Fields;
+import com.donesvad.rest.endpoints.Locator;
+import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Path building in {@link TeamCityEndpoints}, done for every request. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndpointsBenchmark {
+
+  private String projectId = "DslSamples_1a2b3c4d";
+  private String buildTypeId = "DslSamples_1a2b3c4d_Build";
+
+  @Benchmark
+  public String projectById() {
+    return TeamCityEndpoints.projectById(projectId);
+  }
+
+  @Benchmark
+  public String versionedSettingsStatus() {
+    return TeamCityEndpoints.versionedSettingsStatus(projectId);
+  }
+
+  @Benchmark
+  public String buildTypeParameters() {
+    return TeamCityEndpoints.buildTypeParameters(buildTypeId);
+  }
+
+  @Benchmark
+  public String pagedProjectBuildTypes() {
+    return TeamCityEndpoints.projectBuildTypes(
+        projectId, Locator.page(500, 100), Fields.of(Fields.nested("buildType", "id")));
+  }
+
+  @Benchmark
+  public String template() {
+    return TeamCityEndpoints.template(TeamCityEndpoints.buildTypeParameters(buildTypeId));
+  }
+}
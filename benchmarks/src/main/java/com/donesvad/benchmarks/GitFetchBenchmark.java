@@ -0,0 +1,161 @@
+package com.donesvad.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ConfigConstants;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.transport.RefSpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * What the fetch modes of the tests' Git mirror cost. Each invocation creates an empty bare
+ * repository and fetches from a local DSL-like repository ({@code commits} commits on main plus
+ * {@code leakedBranches} temporary branches with a commit each), the way the mirror is populated:
+ *
+ * <ul>
+ *   <li>FULL – every branch with full history (what the old full clone transferred);
+ *   <li>SINGLE_BRANCH – main only, full history;
+ *   <li>SHALLOW – the tip of main only (depth 1, the default of tc.git.depth).
+ * </ul>
+ *
+ * <p>REFSPEC is not measured: it transfers whatever tc.git.refSpecs match, which for the shipped
+ * main and tc-sync-* refspecs is everything this repository has, i.e. FULL.
+ *
+ * <p>The refspecs and depth are those {@code FetchMode.specFor} builds for an operation on main.
+ * {@code FetchMode} lives in the test sources, which this module does not depend on, so they are
+ * repeated here and have to be kept in step with it.
+ *
+ * <p>The size of the objects received, i.e. what a remote would have sent, is printed at the end
+ * of each trial. Local transport hides network latency, so on a real remote the narrow modes gain
+ * more than shown here.
+ *
+ * <pre>java -jar benchmarks/target/benchmarks.jar GitFetchBenchmark</pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 15)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GitFetchBenchmark {
+
+  private static final String BUILD_PATCH = ".teamcity/patches/buildTypes/Build.kts";
+
+  @Param({"FULL", "SINGLE_BRANCH", "SHALLOW"})
+  String mode;
+
+  @Param({"300"})
+  int commits;
+
+  @Param({"0", "200"})
+  int leakedBranches;
+
+  private Path origin;
+  private String originUri;
+  private Path target;
+  private long receivedBytes;
+
+  @Setup(Level.Trial)
+  public void createOrigin() throws Exception {
+    origin = Files.createTempDirectory("bench-git-origin-");
+    originUri = origin.toUri().toString();
+    Random random = new Random(42);
+    try (Git git = Git.init().setDirectory(origin.toFile()).setInitialBranch("main").call()) {
+      Path file = origin.resolve(BUILD_PATCH);
+      Files.createDirectories(file.getParent());
+      StringBuilder dsl = new StringBuilder();
+      for (int i = 0; i < commits; i++) {
+        // a growing DSL file: every commit adds a parameter
+        dsl.append(String.format("    param(\"p%d\", \"%d\")\n", i, random.nextLong()));
+        Files.writeString(file, dsl, StandardCharsets.UTF_8);
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("commit " + i).setSign(false).call();
+      }
+      for (int b = 0; b < leakedBranches; b++) {
+        git.checkout().setCreateBranch(true).setName("tc-sync-" + b).setStartPoint("main").call();
+        Files.writeString(file, dsl + "    // " + random.nextLong() + "\n", StandardCharsets.UTF_8);
+        git.add().addFilepattern(".").call();
+        git.commit().setMessage("temp " + b).setSign(false).call();
+      }
+      git.checkout().setName("main").call();
+    }
+  }
+
+  @Setup(Level.Invocation)
+  public void createTarget() throws IOException {
+    target = Files.createTempDirectory("bench-git-mirror-");
+  }
+
+  @Benchmark
+  public void fetch() throws Exception {
+    try (Git git = Git.init().setBare(true).setDirectory(target.toFile()).call()) {
+      // no background auto gc racing with measuring and deleting the repository
+      StoredConfig config = git.getRepository().getConfig();
+      config.setInt(ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_AUTO, 0);
+      config.setBoolean(
+          ConfigConstants.CONFIG_GC_SECTION, null, ConfigConstants.CONFIG_KEY_AUTODETACH, false);
+      config.save();
+      FetchCommand fetch = git.fetch().setRemote(originUri).setRefSpecs(refSpecs());
+      if (mode.equals("SHALLOW")) {
+        fetch.setDepth(1);
+      }
+      fetch.call();
+    }
+  }
+
+  /** As FetchSpec.allBranches() and FetchSpec.branch("refs/heads/main"). */
+  private List<RefSpec> refSpecs() {
+    return mode.equals("FULL")
+        ? List.of(new RefSpec("+refs/heads/*:refs/heads/*"))
+        : List.of(new RefSpec("+refs/heads/main:refs/heads/main"));
+  }
+
+  @TearDown(Level.Invocation)
+  public void deleteTarget() throws IOException {
+    receivedBytes = size(target.resolve("objects"));
+    delete(target);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteOrigin() throws IOException {
+    System.out.printf(
+        "%n%s, %d leaked branches: %d bytes received per fetch%n",
+        mode, leakedBranches, receivedBytes);
+    delete(origin);
+  }
+
+  private static long size(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      return files.filter(Files::isRegularFile).mapToLong(f -> f.toFile().length()).sum();
+    }
+  }
+
+  private static void delete(Path dir) throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.deleteIfExists(p);
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package com.donesvad.benchmarks;
+
+import com.donesvad.rest.config.JacksonConfig;
+import com.donesvad.rest.dto.ParametersDto;
+import com.donesvad.rest.dto.buildtype.BuildTypesDto;
+import com.donesvad.rest.dto.project.ProjectsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Deserialization of the listing DTOs with the project's {@link ObjectMapper}, from a small project
+ * ({@code 10}) to a large TeamCity instance ({@code 10000} items).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JacksonBenchmark {
+
+  @Param({"10", "1000", "10000"})
+  int items;
+
+  private ObjectMapper objectMapper;
+  private byte[] projects;
+  private byte[] buildTypes;
+  private byte[] parameters;
+
+  @Setup
+  public void setUp() {
+    objectMapper = new JacksonConfig().objectMapper();
+    projects = Payloads.projects(items);
+    buildTypes = Payloads.buildTypes("Bench", items);
+    parameters = Payloads.parameters(items);
+  }
+
+  @Benchmark
+  public ProjectsDto projects() throws IOException {
+    return objectMapper.readValue(projects, ProjectsDto.class);
+  }
+
+  @Benchmark
+  public BuildTypesDto buildTypes() throws IOException {
+    return objectMapper.readValue(buildTypes, BuildTypesDto.class);
+  }
+
+  @Benchmark
+  public ParametersDto parameters() throws IOException {
+    return objectMapper.readValue(parameters, ParametersDto.class);
+  }
+}
@@ -0,0 +1,89 @@
+package com.donesvad.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+
+/** Synthetic TeamCity REST responses shaped like the real ones, sized by item count. */
+public final class Payloads {
+
+  /** Serialized size of one {@link #projects} item, roughly. */
+  public static final int PROJECT_BYTES = 230;
+
+  private Payloads() {}
+
+  /** {@code /app/rest/projects} listing with {@code count} projects. */
+  public static byte[] projects(int count) {
+    StringBuilder sb = new StringBuilder(count * PROJECT_BYTES + 64);
+    sb.append("{\"count\":").append(count).append(",\"href\":\"/app/rest/projects\",\"project\":[");
+    for (int i = 0; i < count; i++) {
+      String id = String.format("Project_%05d", i);
+      if (i > 0) sb.append(',');
+      sb.append("{\"id\":\"")
+          .append(id)
+          .append("\",\"name\":\"Project ")
+          .append(i)
+          .append("\",\"parentProjectId\":\"_Root\",\"description\":\"Imported from Kotlin DSL\"")
+          .append(",\"href\":\"/app/rest/projects/id:")
+          .append(id)
+          .append("\",\"webUrl\":\"http://localhost:8111/project.html?projectId=")
+          .append(id)
+          .append("\"}");
+    }
+    return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** {@code /app/rest/projects/id:{id}/buildTypes} with {@code count} build types. */
+  public static byte[] buildTypes(String projectId, int count) {
+    StringBuilder sb = new StringBuilder(count * 200 + 64);
+    sb.append("{\"count\":").append(count).append(",\"buildType\":[");
+    for (int i = 0; i < count; i++) {
+      String id = projectId + "_Build" + i;
+      if (i > 0) sb.append(',');
+      sb.append("{\"id\":\"")
+          .append(id)
+          .append("\",\"name\":\"Build ")
+          .append(i)
+          .append("\",\"projectName\":\"")
+          .append(projectId)
+          .append("\",\"projectId\":\"")
+          .append(projectId)
+          .append("\",\"href\":\"/app/rest/buildTypes/id:")
+          .append(id)
+          .append("\",\"webUrl\":\"http://localhost:8111/viewType.html?buildTypeId=")
+          .append(id)
+          .append("\"}");
+    }
+    return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** {@code /app/rest/buildTypes/id:{id}/parameters} with {@code count} parameters. */
+  public static byte[] parameters(int count) {
+    StringBuilder sb = new StringBuilder(count * 120 + 64);
+    sb.append("{\"count\":").append(count).append(",\"property\":[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) sb.append(',');
+      sb.append("{\"name\":\"env.PARAM_")
+          .append(i)
+          .append("\",\"value\":\"value-")
+          .append(i)
+          .append("\",\"inherited\":false,\"type\":{\"rawValue\":\"text validationMode='any'\"}}");
+    }
+    return sb.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** {@code /app/rest/projects/id:{id}}. */
+  public static byte[] project(String projectId) {
+    return ("{\"id\":\""
+            + projectId
+            + "\",\"name\":\""
+            + projectId
+            + " Name\",\"parentProjectId\":\"_Root\",\"href\":\"/app/rest/projects/id:"
+            + projectId
+            + "\"}")
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  /** Projects listing of roughly {@code kilobytes} KB. */
+  public static byte[] projectsOfSize(int kilobytes) {
+    return projects(Math.max(1, kilobytes * 1024 / PROJECT_BYTES));
+  }
+}
@@ -0,0 +1,117 @@
+package com.donesvad.benchmarks;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process stand-in for the TeamCity REST API: serves canned JSON bodies by path, gzips them on
+ * the fly when the client accepts it (as TeamCity's Tomcat does), inflates gzipped request bodies
+ * and can throttle the response to a given bandwidth to emulate a remote server.
+ */
+public final class StubTeamCity implements AutoCloseable {
+
+  private static final int CHUNK = 16 * 1024;
+
+  static {
+    // without TCP_NODELAY Nagle + delayed ACK add ~40 ms to every small response
+    System.setProperty("sun.net.httpserver.nodelay", "true");
+  }
+
+  private final HttpServer server;
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final Map<String, byte[]> bodies = new ConcurrentHashMap<>();
+  private final long bandwidthBitsPerSecond;
+
+  /** {@code bandwidthMbps <= 0} means unthrottled loopback. */
+  public StubTeamCity(int bandwidthMbps) {
+    this.bandwidthBitsPerSecond = bandwidthMbps <= 0 ? 0 : bandwidthMbps * 1_000_000L;
+    try {
+      this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+    server.start();
+  }
+
+  public String baseUrl() {
+    return "http://localhost:" + server.getAddress().getPort();
+  }
+
+  /** Serves {@code body} for GETs of {@code path} (query string ignored). */
+  public StubTeamCity json(String path, byte[] body) {
+    bodies.put(path, body);
+    return this;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      byte[] request = readRequest(exchange);
+      byte[] body =
+          exchange.getRequestMethod().equals("GET")
+              ? bodies.get(exchange.getRequestURI().getPath())
+              : request;
+      if (body == null) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+      if (accept != null && accept.contains("gzip")) {
+        body = gzip(body);
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+      }
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      write(exchange.getResponseBody(), body);
+    }
+  }
+
+  private static byte[] readRequest(HttpExchange exchange) throws IOException {
+    InputStream in = exchange.getRequestBody();
+    if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+      in = new GZIPInputStream(new ByteArrayInputStream(in.readAllBytes()));
+    }
+    return in.readAllBytes();
+  }
+
+  private void write(OutputStream out, byte[] body) throws IOException {
+    for (int offset = 0; offset < body.length; offset += CHUNK) {
+      int length = Math.min(CHUNK, body.length - offset);
+      out.write(body, offset, length);
+      if (bandwidthBitsPerSecond > 0) {
+        LockSupport.parkNanos(length * 8L * 1_000_000_000L / bandwidthBitsPerSecond);
+      }
+    }
+  }
+
+  public static byte[] gzip(byte[] body) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4 + 64);
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+      out.write(body);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.toByteArray();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    executor.close();
+  }
+}
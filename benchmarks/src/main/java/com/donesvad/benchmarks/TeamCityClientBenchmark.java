@@ -0,0 +1,103 @@
+package com.donesvad.benchmarks;
+
+import com.donesvad.rest.client.ApiClient;
+import com.donesvad.rest.client.ApiClientOptions;
+import com.donesvad.rest.client.TeamCityClient;
+import com.donesvad.rest.config.JacksonConfig;
+import com.donesvad.rest.config.RestAssuredJacksonConfig;
+import com.donesvad.rest.dto.ParametersDto;
+import com.donesvad.rest.dto.buildtype.BuildTypesDto;
+import com.donesvad.rest.dto.project.ProjectDto;
+import com.donesvad.rest.dto.project.ProjectsDto;
+import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.restassured.RestAssured;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end {@link TeamCityClient} calls (HTTP, decoding, DTO mapping) against the in-process
+ * stub, with listings of {@code items} elements. Paged methods are left out: the stub ignores
+ * locators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TeamCityClientBenchmark {
+
+  private static final String PROJECT_ID = "Bench";
+  private static final String BUILD_TYPE_ID = "Bench_Build";
+
+  @Param({"10", "1000"})
+  int items;
+
+  private StubTeamCity stub;
+  private ApiClient api;
+  private TeamCityClient client;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    stub =
+        new StubTeamCity(0)
+            .json(TeamCityEndpoints.PROJECTS, Payloads.projects(items))
+            .json(TeamCityEndpoints.projectById(PROJECT_ID), Payloads.project(PROJECT_ID))
+            .json(
+                TeamCityEndpoints.projectBuildTypes(PROJECT_ID),
+                Payloads.buildTypes(PROJECT_ID, items))
+            .json(TeamCityEndpoints.buildTypeParameters(BUILD_TYPE_ID), Payloads.parameters(items));
+    ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    RestAssured.baseURI = stub.baseUrl();
+    new RestAssuredJacksonConfig(objectMapper).init();
+    api = new ApiClient("bench", "bench", ApiClientOptions.builder().coalesceGets(false).build());
+    client = new TeamCityClient(api, objectMapper);
+  }
+
+  @Benchmark
+  public ProjectDto getProject() {
+    return client.getProject(PROJECT_ID);
+  }
+
+  @Benchmark
+  public ProjectsDto getProjects() {
+    return client.getProjects();
+  }
+
+  @Benchmark
+  public long streamProjects() {
+    try (Stream<ProjectDto> projects = client.streamProjects()) {
+      return projects.count();
+    }
+  }
+
+  @Benchmark
+  public BuildTypesDto getProjectBuildTypes() {
+    return client.getProjectBuildTypes(PROJECT_ID);
+  }
+
+  @Benchmark
+  public ParametersDto getBuildTypeParameters() {
+    return client.getBuildTypeParameters(BUILD_TYPE_ID);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    api.close();
+    stub.close();
+  }
+}
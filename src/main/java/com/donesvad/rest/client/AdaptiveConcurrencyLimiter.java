@@ -0,0 +1,99 @@
+package com.donesvad.rest.client;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import lombok.extern.apachecommons.CommonsLog;
+
+/**
+ * AIMD limit on concurrent requests to TeamCity. Each completed request is a sample: a failure
+ * (5xx, 429, I/O error) or a latency above the threshold shrinks the limit multiplicatively, a fast
+ * success while the limit is in use grows it by roughly one per limit-many requests. Requests over
+ * the limit wait in FIFO order on a fair lock, so one busy test cannot starve the others.
+ */
+@CommonsLog
+public class AdaptiveConcurrencyLimiter {
+
+  private final LimiterSettings settings;
+  private final long latencyThresholdNanos;
+  private final ReentrantLock lock = new ReentrantLock(true);
+  private final Condition slotFreed = lock.newCondition();
+
+  private double limit;
+  private int inFlight;
+  private int queued;
+  private long congestionSignals;
+
+  public AdaptiveConcurrencyLimiter(LimiterSettings settings) {
+    this.settings = settings;
+    this.latencyThresholdNanos = settings.latencyThresholdMs() * 1_000_000L;
+    this.limit = settings.initialLimit();
+  }
+
+  /**
+   * Runs {@code call} once a slot is free. {@code isFailure} classifies the result; exceptions are
+   * always treated as failures and rethrown.
+   */
+  public <T> T execute(Supplier<T> call, Predicate<T> isFailure) {
+    acquire();
+    long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      T result = call.get();
+      failed = isFailure.test(result);
+      return result;
+    } finally {
+      release(System.nanoTime() - start, failed);
+    }
+  }
+
+  public LimiterStats stats() {
+    lock.lock();
+    try {
+      return new LimiterStats((int) limit, inFlight, queued, congestionSignals);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void acquire() {
+    lock.lock();
+    try {
+      queued++;
+      try {
+        while (inFlight >= (int) limit) {
+          slotFreed.awaitUninterruptibly();
+        }
+      } finally {
+        queued--;
+      }
+      inFlight++;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void release(long latencyNanos, boolean failed) {
+    lock.lock();
+    try {
+      int before = (int) limit;
+      if (failed || latencyNanos > latencyThresholdNanos) {
+        congestionSignals++;
+        limit = Math.max(settings.minLimit(), limit * settings.backoffRatio());
+      } else if (inFlight * 2 >= limit) {
+        limit = Math.min(settings.maxLimit(), limit + 1.0 / limit);
+      }
+      inFlight--;
+      if ((int) limit != before) {
+        log.debug(
+            String.format(
+                "[AdaptiveConcurrencyLimiter] limit %d -> %d (latency=%dms, failed=%s)",
+                before, (int) limit, latencyNanos / 1_000_000L, failed));
+      }
+      slotFreed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+}
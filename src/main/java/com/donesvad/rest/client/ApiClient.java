@@ -2,33 +2,138 @@ package com.donesvad.rest.client;
 
 import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.preemptive;
+import static org.apache.http.HttpStatus.SC_INTERNAL_SERVER_ERROR;
 
+import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import com.donesvad.rest.metrics.LatencyTimer;
+import com.donesvad.rest.metrics.MetricsRegistry;
 import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.DecoderConfig.ContentDecoder;
+import io.restassured.config.HttpClientConfig;
+import io.restassured.config.RestAssuredConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import lombok.extern.apachecommons.CommonsLog;
+import org.apache.http.impl.client.DefaultHttpClient;
 
-@RequiredArgsConstructor
-public class ApiClient {
+/**
+ * Thin REST Assured wrapper with preemptive basic auth. The request specification is built once and
+ * only read afterwards, so a single instance is safe to share between parallel tests; all requests
+ * go through one bounded keep-alive {@link HttpConnectionPool}. Concurrent identical GETs can be
+ * collapsed into one request by a {@link RequestCoalescer} (opt-in), and the requests that do reach
+ * the server are throttled by an {@link AdaptiveConcurrencyLimiter}. Failed idempotent calls are
+ * retried by a {@link RetryPolicy}, each attempt taking its own limiter slot. Every request that
+ * reaches the server is timed per logical endpoint ({@link TeamCityEndpoints#template}) in the
+ * {@link MetricsRegistry}. Compressed responses are decoded while they are read and large request
+ * bodies can optionally be gzipped, see {@link CompressionSettings}.
+ */
+@CommonsLog
+public class ApiClient implements AutoCloseable {
 
-  private final String username;
-  private final String password;
+  /** Not defined by HttpClient 4's HttpStatus. */
+  static final int SC_TOO_MANY_REQUESTS = 429;
 
-  private RequestSpecification spec() {
-    return new RequestSpecBuilder()
-        .setAuth(preemptive().basic(username, password))
-        .setAccept(ContentType.JSON)
-        .setContentType(ContentType.JSON)
-        .build();
+  /** Timer family of all requests, labelled with method and endpoint template. */
+  public static final String REQUEST_METRIC = "teamcity_rest_request";
+
+  private final HttpConnectionPool pool;
+  private final RequestSpecification spec;
+  private final RequestCoalescer coalescer;
+  private final AdaptiveConcurrencyLimiter limiter;
+  private final RetryPolicy retry;
+  private final MetricsRegistry metrics;
+
+  public ApiClient(String username, String password) {
+    this(username, password, ApiClientOptions.defaults());
+  }
+
+  public ApiClient(String username, String password, ApiClientOptions options) {
+    this.pool = new HttpConnectionPool(options.getPool());
+    this.coalescer = options.isCoalesceGets() ? new RequestCoalescer() : null;
+    this.limiter =
+        options.getLimiter().enabled()
+            ? new AdaptiveConcurrencyLimiter(options.getLimiter())
+            : null;
+    this.retry = options.getRetry().enabled() ? new RetryPolicy(options.getRetry()) : null;
+    this.metrics = options.getMetrics();
+    CompressionSettings compression = options.getCompression();
+    RequestSpecBuilder builder = new RequestSpecBuilder();
+    if (options.getBaseUri() != null) {
+      builder.setBaseUri(options.getBaseUri());
+    }
+    this.spec =
+        builder
+            .setAuth(preemptive().basic(username, password))
+            .setAccept(ContentType.JSON)
+            .setContentType(ContentType.JSON)
+            // Only the http client and decoder parts are user-configured here, so they are merged
+            // with the global RestAssured.config (object mapper, SSL) at request time instead of
+            // replacing it.
+            .setConfig(
+                RestAssuredConfig.config()
+                    .httpClient(
+                        HttpClientConfig.httpClientConfig()
+                            .httpClientFactory(() -> newHttpClient(compression)))
+                    .decoderConfig(
+                        compression.acceptCompressed()
+                            ? DecoderConfig.decoderConfig()
+                                .contentDecoders(ContentDecoder.GZIP, ContentDecoder.DEFLATE)
+                            : DecoderConfig.decoderConfig().noContentDecoders()))
+            .build();
+    registerMetrics();
   }
 
   public Response get(String path) {
-    return given(spec()).get(path);
+    return coalesced(
+        "GET " + path,
+        () -> retried("GET " + path, () -> limited("GET", path, () -> given(spec).get(path))));
+  }
+
+  public Response get(String path, Map<String, String> headers) {
+    return coalesced(
+        "GET " + path + " " + new TreeMap<>(headers),
+        () ->
+            retried(
+                "GET " + path,
+                () -> limited("GET", path, () -> given(spec).headers(headers).get(path))));
+  }
+
+  /**
+   * GET without buffering the body: read it via {@link Response#asInputStream()} and close that
+   * stream (or read it to the end) to hand the connection back to the pool.
+   */
+  public Response getStreaming(String path) {
+    // the slot is held (and the latency measured) until the headers arrive, not while the caller
+    // reads the body
+    Supplier<Response> call = () -> timed("GET", path, () -> given(spec).get(path));
+    return retried(
+        "GET " + path,
+        () -> limiter != null ? limiter.execute(call, ApiClient::isServerBusy) : call.get());
   }
 
   public Response post(String path, Object body) {
-    return given(spec()).body(body).post(path);
+    return limited("POST", path, () -> given(spec).body(body).post(path));
+  }
+
+  /**
+   * POST that is retried like an idempotent call, except that before every retry {@code
+   * lookupApplied} checks whether the failed attempt created the resource after all. It returns the
+   * resource (a response with the same body shape as the POST's) or null if it does not exist. With
+   * a null lookup the POST is sent once.
+   */
+  public Response post(String path, Object body, Supplier<Response> lookupApplied) {
+    if (lookupApplied == null) {
+      return post(path, body);
+    }
+    return retried(
+        "POST " + path,
+        () -> limited("POST", path, () -> given(spec).body(body).post(path)),
+        lookupApplied);
   }
 
   public Response post(String path) {
@@ -36,10 +141,127 @@ public class ApiClient {
   }
 
   public Response put(String path, Object body) {
-    return given(spec()).body(body).put(path);
+    return retried(
+        "PUT " + path, () -> limited("PUT", path, () -> given(spec).body(body).put(path)));
   }
 
   public Response delete(String path) {
-    return given(spec()).delete(path);
+    return retried("DELETE " + path, () -> limited("DELETE", path, () -> given(spec).delete(path)));
+  }
+
+  @SuppressWarnings("deprecation") // REST Assured is built on the legacy HttpClient 4 API
+  private DefaultHttpClient newHttpClient(CompressionSettings compression) {
+    DefaultHttpClient client = pool.newHttpClient();
+    if (compression.compressRequests()) {
+      // first, so that RequestContent sets the headers from the compressed entity
+      client.addRequestInterceptor(new GzipRequestInterceptor(compression.minRequestBytes()), 0);
+    }
+    return client;
+  }
+
+  private Response coalesced(String key, Supplier<Response> call) {
+    return coalescer != null ? coalescer.execute(key, call) : call.get();
+  }
+
+  private Response retried(String description, Supplier<Response> call) {
+    return retried(description, call, null);
+  }
+
+  private Response retried(
+      String description, Supplier<Response> call, Supplier<Response> lookupApplied) {
+    return retry != null ? retry.execute(description, call, lookupApplied) : call.get();
+  }
+
+  /** Sends the request within the concurrency limit and buffers the body. */
+  private Response limited(String method, String path, Supplier<Response> call) {
+    Supplier<Response> timed = () -> timed(method, path, () -> released(call.get()));
+    return limiter != null ? limiter.execute(timed, ApiClient::isServerBusy) : timed.get();
+  }
+
+  private Response timed(String method, String path, Supplier<Response> call) {
+    LatencyTimer timer =
+        metrics.timer(
+            REQUEST_METRIC,
+            "TeamCity REST request latency.",
+            "method",
+            method,
+            "endpoint",
+            TeamCityEndpoints.template(path));
+    long start = System.nanoTime();
+    try {
+      Response response = call.get();
+      timer.record(System.nanoTime() - start, response.statusCode() / 100 + "xx");
+      return response;
+    } catch (Throwable e) {
+      // REST Assured rethrows checked I/O exceptions (e.g. ConnectException) undeclared
+      timer.record(System.nanoTime() - start, "error");
+      throw e;
+    }
+  }
+
+  private void registerMetrics() {
+    metrics.gauge(
+        "teamcity_rest_concurrency_limit",
+        "Current adaptive concurrency limit.",
+        () -> limiterStats().limit());
+    metrics.counter(
+        "teamcity_rest_concurrency_congestion_signals",
+        "Requests that made the limiter back off.",
+        () -> limiterStats().congestionSignals());
+    metrics.counter(
+        "teamcity_rest_retries", "Attempts after the first one.", () -> retryStats().retries());
+    metrics.counter(
+        "teamcity_rest_retry_budget_exhausted",
+        "Retries skipped because the retry budget was empty.",
+        () -> retryStats().budgetExhausted());
+    metrics.counter(
+        "teamcity_rest_gets_coalesced",
+        "GETs served by an identical in-flight request.",
+        () -> coalescingStats().coalesced());
+    metrics.gauge(
+        "teamcity_rest_connections_max", "Connection pool capacity.", () -> poolStats().max());
+  }
+
+  static boolean isServerBusy(Response response) {
+    return response.statusCode() >= SC_INTERNAL_SERVER_ERROR
+        || response.statusCode() == SC_TOO_MANY_REQUESTS;
+  }
+
+  /**
+   * REST Assured reads the body lazily, so a response that is only checked for its status code
+   * would keep its pooled connection leased forever. Buffering the body up front hands the
+   * connection back to the pool as soon as the call returns.
+   */
+  private static Response released(Response response) {
+    response.asByteArray();
+    return response;
+  }
+
+  /** Current leased/idle/pending connection counts, useful for sizing the pool. */
+  public ConnectionPoolStats poolStats() {
+    return pool.stats();
+  }
+
+  /** How many GETs went to the server and how many were served by an identical in-flight one. */
+  public CoalescingStats coalescingStats() {
+    return coalescer != null ? coalescer.stats() : new CoalescingStats(0, 0);
+  }
+
+  /** Current adaptive concurrency limit, in-flight and queued requests. */
+  public LimiterStats limiterStats() {
+    return limiter != null ? limiter.stats() : new LimiterStats(0, 0, 0, 0);
+  }
+
+  /** Retries so far, retries denied by the budget and POSTs found applied after a failure. */
+  public RetryStats retryStats() {
+    return retry != null ? retry.stats() : new RetryStats(0, 0, 0);
+  }
+
+  @Override
+  public void close() {
+    log.info(String.format("[ApiClient] request coalescing: %s", coalescingStats()));
+    log.info(String.format("[ApiClient] concurrency limiter: %s", limiterStats()));
+    log.info(String.format("[ApiClient] retries: %s", retryStats()));
+    pool.close();
   }
 }
@@ -0,0 +1,38 @@
+package com.donesvad.rest.client;
+
+import com.donesvad.rest.metrics.MetricsRegistry;
+import lombok.Builder;
+import lombok.Value;
+
+/** Transport behaviour of an {@link ApiClient}; unset options keep their defaults. */
+@Value
+@Builder
+public class ApiClientOptions {
+
+  /** Server the requests go to; null uses {@code RestAssured.baseURI}. */
+  String baseUri;
+
+  @Builder.Default ConnectionPoolSettings pool = ConnectionPoolSettings.defaults();
+
+  /**
+   * Let concurrent identical GETs share one in-flight request. Off by default: a GET sent right
+   * after a write can join one that started before it and see the old state.
+   */
+  @Builder.Default boolean coalesceGets = false;
+
+  /** Adaptive bound on concurrent requests sent to the server. */
+  @Builder.Default LimiterSettings limiter = LimiterSettings.defaults();
+
+  /** Retries of failed idempotent calls and of POSTs that provably did not apply. */
+  @Builder.Default RetrySettings retry = RetrySettings.defaults();
+
+  /** Response decoding and request body compression. */
+  @Builder.Default CompressionSettings compression = CompressionSettings.defaults();
+
+  /** Where per-endpoint latencies and transport gauges are recorded. */
+  @Builder.Default MetricsRegistry metrics = MetricsRegistry.global();
+
+  public static ApiClientOptions defaults() {
+    return builder().build();
+  }
+}
@@ -0,0 +1,178 @@
+package com.donesvad.rest.client;
+
+import static org.apache.http.HttpStatus.SC_NOT_MODIFIED;
+import static org.apache.http.HttpStatus.SC_OK;
+
+import io.restassured.response.Response;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in cache for idempotent TeamCity GET responses, used by {@link TeamCityClient}.
+ *
+ * <ul>
+ *   <li>Bounded LRU: least recently used entries are evicted beyond {@code maxEntries} or {@code
+ *       maxBytes} of cached bodies.
+ *   <li>Entries that came with an {@code ETag} are revalidated with {@code If-None-Match} on every
+ *       read; a 304 serves the cached body. Entries without one are served for {@code maxAgeMs}.
+ *   <li>Every entry carries a scope (a project id, a build type or the listing scope) and is
+ *       dropped when a mutating call touches the owning project.
+ * </ul>
+ */
+public class ApiResponseCache {
+
+  /** Scope of listings such as /app/rest/projects, invalidated by any project mutation. */
+  public static final String LISTING_SCOPE = "*";
+
+  private static final String BUILD_TYPE_SCOPE = "buildType:";
+
+  private final boolean enabled;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final long maxAgeNanos;
+
+  private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, String> buildTypeProjects = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private long bytes;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder revalidations = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+
+  public ApiResponseCache(int maxEntries, long maxBytes, long maxAgeMs) {
+    this(true, maxEntries, maxBytes, maxAgeMs);
+  }
+
+  private ApiResponseCache(boolean enabled, int maxEntries, long maxBytes, long maxAgeMs) {
+    this.enabled = enabled;
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.maxAgeNanos = maxAgeMs * 1_000_000L;
+  }
+
+  /** Pass-through instance: every call goes to the server and nothing is stored. */
+  public static ApiResponseCache disabled() {
+    return new ApiResponseCache(false, 0, 0, 0);
+  }
+
+  public static String buildTypeScope(String buildTypeId) {
+    return BUILD_TYPE_SCOPE + buildTypeId;
+  }
+
+  /** GETs {@code path} through the cache; only 200 responses are stored. */
+  public Response get(ApiClient api, String path, String scope) {
+    if (!enabled) {
+      return api.get(path);
+    }
+    long gen = generation.get();
+    Entry cached = lookup(path);
+    if (cached != null && cached.etag == null && cached.ageNanos() < maxAgeNanos) {
+      hits.increment();
+      return Responses.copy(cached.response);
+    }
+    Response response =
+        cached != null && cached.etag != null
+            ? api.get(path, Map.of("If-None-Match", cached.etag))
+            : api.get(path);
+    if (cached != null && response.statusCode() == SC_NOT_MODIFIED) {
+      hits.increment();
+      revalidations.increment();
+      return Responses.copy(cached.response);
+    }
+    misses.increment();
+    if (response.statusCode() == SC_OK) {
+      // the caller gets the original, so no caller ever shares the cached instance
+      store(path, scope, Responses.copy(response), gen);
+    }
+    return response;
+  }
+
+  /** Records which project a build type belongs to, so its entries follow project invalidation. */
+  public void linkBuildType(String buildTypeId, String projectId) {
+    if (enabled && buildTypeId != null && projectId != null) {
+      buildTypeProjects.put(buildTypeId, projectId);
+    }
+  }
+
+  /**
+   * Drops every entry of the project: its own resources, its build types (known links, or ids with
+   * TeamCity's default {@code ProjectId_} prefix) and all listings.
+   */
+  public void invalidateProject(String projectId) {
+    if (!enabled) return;
+    generation.incrementAndGet();
+    synchronized (this) {
+      Iterator<Entry> it = entries.values().iterator();
+      while (it.hasNext()) {
+        Entry e = it.next();
+        if (belongsTo(e.scope, projectId)) {
+          it.remove();
+          bytes -= e.size;
+          invalidations.increment();
+        }
+      }
+    }
+  }
+
+  public synchronized ApiResponseCacheStats stats() {
+    return new ApiResponseCacheStats(
+        hits.sum(),
+        misses.sum(),
+        revalidations.sum(),
+        evictions.sum(),
+        invalidations.sum(),
+        entries.size(),
+        bytes);
+  }
+
+  private boolean belongsTo(String scope, String projectId) {
+    if (LISTING_SCOPE.equals(scope) || projectId == null || projectId.equals(scope)) {
+      return true;
+    }
+    if (scope != null && scope.startsWith(BUILD_TYPE_SCOPE)) {
+      String buildTypeId = scope.substring(BUILD_TYPE_SCOPE.length());
+      return projectId.equals(buildTypeProjects.get(buildTypeId))
+          || buildTypeId.startsWith(projectId + "_");
+    }
+    return false;
+  }
+
+  private synchronized Entry lookup(String path) {
+    return entries.get(path);
+  }
+
+  private synchronized void store(String path, String scope, Response response, long gen) {
+    // a mutation invalidated while this response was in flight, so it may already be stale
+    if (generation.get() != gen) return;
+    Entry entry =
+        new Entry(
+            response,
+            response.getHeader("ETag"),
+            scope,
+            System.nanoTime(),
+            response.asByteArray().length);
+    Entry previous = entries.put(path, entry);
+    if (previous != null) bytes -= previous.size;
+    bytes += entry.size;
+    Iterator<Entry> eldest = entries.values().iterator();
+    while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+      Entry e = eldest.next();
+      eldest.remove();
+      bytes -= e.size;
+      evictions.increment();
+    }
+  }
+
+  private record Entry(Response response, String etag, String scope, long storedAt, int size) {
+    long ageNanos() {
+      return System.nanoTime() - storedAt;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.donesvad.rest.client;
+
+/**
+ * Counters of the {@link ApiResponseCache}.
+ *
+ * @param hits reads served from the cache, including 304 revalidations
+ * @param misses reads that had to transfer the body from the server
+ * @param revalidations hits confirmed by the server with 304 Not Modified
+ * @param evictions entries dropped by the LRU size bounds
+ * @param invalidations entries dropped because a mutating call touched their project
+ * @param entries entries currently cached
+ * @param bytes size of the currently cached bodies
+ */
+public record ApiResponseCacheStats(
+    long hits,
+    long misses,
+    long revalidations,
+    long evictions,
+    long invalidations,
+    int entries,
+    long bytes) {}
@@ -0,0 +1,174 @@
+package com.donesvad.rest.client;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Non-blocking counterpart of {@link ApiClient} built on {@link HttpClient}. Response handling runs
+ * on virtual threads, so thousands of in-flight requests cost almost no platform threads. Bodies are
+ * (de)serialized with the same {@link ObjectMapper} that REST Assured uses.
+ *
+ * <p>Bodies are not streamed: each response holds its whole body as received, so it can be read
+ * after the future completes, more than once, and without a connection left open until a caller
+ * closes it. A compressed body (see {@link CompressionSettings}) is held compressed and only
+ * inflated while Jackson reads it, so the decompressed bytes are never buffered, but the compressed
+ * ones always are. Very large responses cost their compressed size in memory for as long as the
+ * response is reachable.
+ */
+public class AsyncApiClient implements AutoCloseable {
+
+  private static final String JSON = "application/json";
+
+  private final URI baseUri;
+  private final String authorization;
+  private final ObjectMapper objectMapper;
+  private final CompressionSettings compression;
+  private final ExecutorService executor;
+  private final HttpClient http;
+
+  public AsyncApiClient(
+      String baseUrl, String username, String password, ObjectMapper objectMapper) {
+    this(baseUrl, username, password, objectMapper, CompressionSettings.defaults());
+  }
+
+  public AsyncApiClient(
+      String baseUrl,
+      String username,
+      String password,
+      ObjectMapper objectMapper,
+      CompressionSettings compression) {
+    this.baseUri = URI.create(baseUrl);
+    this.authorization =
+        "Basic "
+            + Base64.getEncoder()
+                .encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    this.objectMapper = objectMapper;
+    this.compression = compression;
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    this.http =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(executor)
+            .build();
+  }
+
+  public CompletableFuture<HttpResponse<byte[]>> get(String path) {
+    return send(request(path).GET());
+  }
+
+  public CompletableFuture<HttpResponse<byte[]>> post(String path, Object body) {
+    HttpRequest.Builder request = request(path);
+    return send(request.POST(jsonBody(request, body)));
+  }
+
+  public CompletableFuture<HttpResponse<byte[]>> post(String path) {
+    return post(path, "{}");
+  }
+
+  public CompletableFuture<HttpResponse<byte[]>> put(String path, Object body) {
+    HttpRequest.Builder request = request(path);
+    return send(request.PUT(jsonBody(request, body)));
+  }
+
+  public CompletableFuture<HttpResponse<byte[]>> delete(String path) {
+    return send(request(path).DELETE());
+  }
+
+  /** Deserializes a JSON response body with the shared object mapper. */
+  public <T> T read(HttpResponse<byte[]> response, Class<T> type) {
+    try (InputStream in = decoded(response)) {
+      return objectMapper.readValue(in, type);
+    } catch (IOException e) {
+      throw new UncheckedIOException(
+          "Cannot parse " + type.getSimpleName() + " from " + response.uri(), e);
+    }
+  }
+
+  /** Response body as text, decompressed if needed. */
+  public String bodyAsString(HttpResponse<byte[]> response) {
+    try (InputStream in = decoded(response)) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot read body of " + response.uri(), e);
+    }
+  }
+
+  private static InputStream decoded(HttpResponse<byte[]> response) throws IOException {
+    InputStream raw = new ByteArrayInputStream(response.body());
+    String encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+    return switch (encoding.trim().toLowerCase(Locale.ROOT)) {
+      case "gzip", "x-gzip" -> new GZIPInputStream(raw);
+      case "deflate" -> new InflaterInputStream(raw);
+      default -> raw;
+    };
+  }
+
+  private HttpRequest.Builder request(String path) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(baseUri.resolve(path))
+            .header("Authorization", authorization)
+            .header("Accept", JSON)
+            .header("Content-Type", JSON);
+    if (compression.acceptCompressed()) {
+      builder.header("Accept-Encoding", "gzip, deflate");
+    }
+    return builder;
+  }
+
+  private HttpRequest.BodyPublisher jsonBody(HttpRequest.Builder request, Object body) {
+    byte[] bytes;
+    try {
+      bytes =
+          body instanceof String s
+              ? s.getBytes(StandardCharsets.UTF_8)
+              : objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Cannot serialize request body: " + body, e);
+    }
+    if (compression.compressRequests() && bytes.length >= compression.minRequestBytes()) {
+      request.header("Content-Encoding", "gzip");
+      bytes = gzip(bytes);
+    }
+    return HttpRequest.BodyPublishers.ofByteArray(bytes);
+  }
+
+  private static byte[] gzip(byte[] bytes) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytes.length / 4);
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+      out.write(bytes);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot compress request body", e);
+    }
+    return buffer.toByteArray();
+  }
+
+  private CompletableFuture<HttpResponse<byte[]>> send(HttpRequest.Builder builder) {
+    return http.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+  }
+
+  @Override
+  public void close() {
+    http.close();
+    executor.close();
+  }
+}
@@ -0,0 +1,102 @@
+package com.donesvad.rest.client;
+
+import static org.apache.http.HttpStatus.SC_NO_CONTENT;
+import static org.apache.http.HttpStatus.SC_OK;
+
+import com.donesvad.rest.dto.ParametersDto;
+import com.donesvad.rest.dto.buildtype.BuildTypesDto;
+import com.donesvad.rest.dto.project.CreateProjectRequest;
+import com.donesvad.rest.dto.project.ProjectDto;
+import com.donesvad.rest.dto.project.ProjectsDto;
+import com.donesvad.rest.dto.vcs.CreateVcsRootRequest;
+import com.donesvad.rest.dto.vcs.VersionedSettingsConfigRequest;
+import com.donesvad.rest.dto.vcs.VersionedSettingsStatusDto;
+import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Asynchronous variant of {@link TeamCityClient}. Every call returns immediately with a future that
+ * completes with the parsed DTO, or exceptionally with {@link IllegalStateException} when TeamCity
+ * answers with an unexpected status code.
+ */
+@RequiredArgsConstructor
+public class AsyncTeamCityClient {
+
+  private final AsyncApiClient api;
+
+  public CompletableFuture<HttpResponse<byte[]>> getProjectResponse(String projectId) {
+    return api.get(TeamCityEndpoints.projectById(projectId));
+  }
+
+  public CompletableFuture<ProjectDto> getProject(String projectId) {
+    return getProjectResponse(projectId).thenApply(r -> read(r, ProjectDto.class));
+  }
+
+  public CompletableFuture<BuildTypesDto> getProjectBuildTypes(String projectId) {
+    return api.get(TeamCityEndpoints.projectBuildTypes(projectId))
+        .thenApply(r -> read(r, BuildTypesDto.class));
+  }
+
+  public CompletableFuture<ProjectsDto> getProjects() {
+    return api.get(TeamCityEndpoints.PROJECTS).thenApply(r -> read(r, ProjectsDto.class));
+  }
+
+  public CompletableFuture<ProjectDto> createProjectUnderRoot(CreateProjectRequest req) {
+    return api.post(TeamCityEndpoints.PROJECTS, req).thenApply(r -> read(r, ProjectDto.class));
+  }
+
+  public CompletableFuture<Void> deleteProject(String projectId) {
+    return api.delete(TeamCityEndpoints.projectById(projectId))
+        .thenAccept(r -> expectStatus(r, SC_OK, SC_NO_CONTENT));
+  }
+
+  public CompletableFuture<String> createVcsRoot(CreateVcsRootRequest req) {
+    return api.post(TeamCityEndpoints.VCS_ROOTS, req)
+        .thenApply(r -> read(r, JsonNode.class).path("id").asText(null));
+  }
+
+  public CompletableFuture<Void> putVersionedSettingsConfig(
+      String projectId, VersionedSettingsConfigRequest cfg) {
+    return api.put(TeamCityEndpoints.projectVsConfig(projectId), cfg)
+        .thenAccept(r -> expectStatus(r, SC_OK));
+  }
+
+  public CompletableFuture<Void> loadVersionedSettings(String projectId) {
+    return api.post(TeamCityEndpoints.projectVsLoad(projectId))
+        .thenAccept(r -> expectStatus(r, SC_OK));
+  }
+
+  public CompletableFuture<VersionedSettingsStatusDto> getVersionedSettingsStatus(
+      String projectId) {
+    return api.get(TeamCityEndpoints.versionedSettingsStatus(projectId))
+        .thenApply(r -> read(r, VersionedSettingsStatusDto.class));
+  }
+
+  public CompletableFuture<ParametersDto> getBuildTypeParameters(String buildTypeId) {
+    return api.get(TeamCityEndpoints.buildTypeParameters(buildTypeId))
+        .thenApply(r -> read(r, ParametersDto.class));
+  }
+
+  private <T> T read(HttpResponse<byte[]> response, Class<T> type) {
+    expectStatus(response, SC_OK);
+    return api.read(response, type);
+  }
+
+  private void expectStatus(HttpResponse<byte[]> response, int... expected) {
+    int actual = response.statusCode();
+    if (Arrays.stream(expected).noneMatch(code -> code == actual)) {
+      throw new IllegalStateException(
+          String.format(
+              "%s %s: expected status %s but was %d. Body: %s",
+              response.request().method(),
+              response.uri(),
+              Arrays.toString(expected),
+              actual,
+              api.bodyAsString(response)));
+    }
+  }
+}
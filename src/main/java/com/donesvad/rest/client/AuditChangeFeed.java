@@ -0,0 +1,192 @@
+package com.donesvad.rest.client;
+
+import com.donesvad.rest.dto.audit.AuditEventDto;
+import com.donesvad.rest.dto.audit.AuditEventsDto;
+import com.donesvad.rest.endpoints.Fields;
+import com.donesvad.rest.endpoints.Locator;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import lombok.extern.apachecommons.CommonsLog;
+
+/**
+ * Tails the TeamCity audit log ({@code /app/rest/audit}) and dispatches new events to subscribers,
+ * so code waiting for a change (settings applied from VCS, a build type edited) can react to it
+ * instead of re-fetching the resource on every poll. One audit request per interval serves all
+ * subscribers, whatever the number of resources they watch.
+ *
+ * <p>The log is read only while someone is subscribed. The first read just records the newest
+ * event id; later reads fetch pages newest-first until they reach that id and dispatch the new
+ * events oldest-first. Events are a hint, not a guarantee (the audit log may be disabled or the
+ * user may lack permission to read it), so subscribers should keep a slower fallback poll.
+ */
+@CommonsLog
+public class AuditChangeFeed implements AutoCloseable {
+
+  /** Cancels a subscription. */
+  public interface Subscription extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  private static final Fields FIELDS =
+      Fields.of(
+          "count",
+          Fields.nested(
+              "auditEvent",
+              "id",
+              "timestamp",
+              Fields.nested("action", "name"),
+              Fields.nested("comment", "text"),
+              Fields.nested(
+                  "relatedEntities",
+                  Fields.nested(
+                      "entity",
+                      "type",
+                      Fields.nested("project", "id"),
+                      Fields.nested("buildType", "id"),
+                      Fields.nested("vcsRoot", "id")))));
+
+  private final TeamCityClient client;
+  private final AuditFeedSettings settings;
+  private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+  private final ScheduledExecutorService scheduler;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder dispatched = new LongAdder();
+  private ScheduledFuture<?> task;
+  // only touched by the scheduler thread
+  private long lastSeenId = -1;
+  private boolean failing;
+
+  public AuditChangeFeed(TeamCityClient client, AuditFeedSettings settings) {
+    this.client = client;
+    this.settings = settings;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "tc-audit-feed");
+              t.setDaemon(true);
+              return t;
+            });
+  }
+
+  /** Calls {@code listener} on the feed thread for each new event accepted by {@code filter}. */
+  public Subscription subscribe(Predicate<AuditEventDto> filter, Consumer<AuditEventDto> listener) {
+    Listener registered = new Listener(filter, listener);
+    listeners.add(registered);
+    if (settings.enabled()) {
+      start();
+    }
+    return () -> listeners.remove(registered);
+  }
+
+  private synchronized void start() {
+    if (task == null && !scheduler.isShutdown()) {
+      task =
+          scheduler.scheduleWithFixedDelay(
+              this::tick, 0, settings.pollIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private void tick() {
+    if (listeners.isEmpty()) {
+      // nobody listens: forget the position instead of replaying the gap to the next subscriber
+      lastSeenId = -1;
+      return;
+    }
+    try {
+      if (lastSeenId < 0) {
+        lastSeenId = newestId(page(0, 1));
+      } else {
+        readSince();
+      }
+      if (failing) {
+        log.info("[AuditFeed] reading the audit log works again");
+        failing = false;
+      }
+    } catch (Exception | AssertionError e) {
+      // REST Assured rethrows I/O exceptions undeclared; the next tick tries again
+      if (!failing) {
+        log.warn(String.format("[AuditFeed] cannot read the audit log: %s", e));
+        failing = true;
+      }
+    }
+  }
+
+  private void readSince() {
+    List<AuditEventDto> fresh = new ArrayList<>();
+    long oldestRead = Long.MAX_VALUE;
+    boolean caughtUp = false;
+    for (int page = 0; page < settings.maxPages() && !caughtUp; page++) {
+      List<AuditEventDto> events = page(page * settings.pageSize(), settings.pageSize());
+      caughtUp = events.size() < settings.pageSize();
+      for (AuditEventDto event : events) {
+        Long id = event.getId();
+        if (id == null) continue;
+        // ids not below what an earlier page returned mean the listing moved or ignores paging
+        if (id <= lastSeenId || id >= oldestRead) {
+          caughtUp = true;
+          break;
+        }
+        fresh.add(event);
+      }
+      oldestRead = fresh.isEmpty() ? oldestRead : fresh.get(fresh.size() - 1).getId();
+    }
+    if (!caughtUp) {
+      log.warn(
+          String.format(
+              "[AuditFeed] more than %d new events since id %d, older ones are skipped",
+              settings.maxPages() * settings.pageSize(), lastSeenId));
+    }
+    fresh.sort(Comparator.comparing(AuditEventDto::getId));
+    for (AuditEventDto event : fresh) {
+      lastSeenId = Math.max(lastSeenId, event.getId());
+      dispatch(event);
+    }
+  }
+
+  private void dispatch(AuditEventDto event) {
+    for (Listener listener : listeners) {
+      try {
+        if (listener.filter().test(event)) {
+          dispatched.increment();
+          listener.consumer().accept(event);
+        }
+      } catch (RuntimeException e) {
+        log.warn(String.format("[AuditFeed] listener failed on event %d", event.getId()), e);
+      }
+    }
+  }
+
+  private List<AuditEventDto> page(int start, int count) {
+    requests.increment();
+    AuditEventsDto page = client.getAuditEvents(Locator.page(start, count), FIELDS);
+    return page != null && page.getAuditEvent() != null ? page.getAuditEvent() : List.of();
+  }
+
+  private static long newestId(List<AuditEventDto> events) {
+    return events.stream()
+        .map(AuditEventDto::getId)
+        .filter(id -> id != null)
+        .max(Long::compare)
+        .orElse(0L);
+  }
+
+  @Override
+  public void close() {
+    scheduler.shutdownNow();
+    log.info(
+        String.format(
+            "[AuditFeed] auditRequests=%d eventsDispatched=%d", requests.sum(), dispatched.sum()));
+  }
+
+  private record Listener(Predicate<AuditEventDto> filter, Consumer<AuditEventDto> consumer) {}
+}
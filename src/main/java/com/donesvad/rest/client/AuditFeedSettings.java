@@ -0,0 +1,19 @@
+package com.donesvad.rest.client;
+
+import lombok.Builder;
+
+/**
+ * Settings of the {@link AuditChangeFeed}.
+ *
+ * @param enabled when false subscriptions are accepted but the audit log is never read
+ * @param pollIntervalMs delay between two reads of the audit log while anyone is subscribed
+ * @param pageSize events per audit request
+ * @param maxPages pages read per tick when catching up; older events are skipped
+ */
+@Builder
+public record AuditFeedSettings(boolean enabled, long pollIntervalMs, int pageSize, int maxPages) {
+
+  public static AuditFeedSettings defaults() {
+    return new AuditFeedSettings(true, 1_000L, 100, 10);
+  }
+}
@@ -0,0 +1,9 @@
+package com.donesvad.rest.client;
+
+/**
+ * Counters of the {@link RequestCoalescer}.
+ *
+ * @param executed requests that actually went to the server
+ * @param coalesced requests that were answered by an identical request already in flight
+ */
+public record CoalescingStats(long executed, long coalesced) {}
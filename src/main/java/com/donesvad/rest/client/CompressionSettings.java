@@ -0,0 +1,21 @@
+package com.donesvad.rest.client;
+
+import lombok.Builder;
+
+/**
+ * HTTP compression used by {@link ApiClient} and {@link AsyncApiClient}.
+ *
+ * @param acceptCompressed send {@code Accept-Encoding: gzip, deflate} and decode compressed
+ *     responses while they are read
+ * @param compressRequests gzip request bodies of at least {@code minRequestBytes}; the server must
+ *     accept {@code Content-Encoding: gzip} request bodies (a stock TeamCity does not)
+ * @param minRequestBytes smaller bodies are sent as is, compressing them costs more than it saves
+ */
+@Builder
+public record CompressionSettings(
+    boolean acceptCompressed, boolean compressRequests, int minRequestBytes) {
+
+  public static CompressionSettings defaults() {
+    return new CompressionSettings(true, false, 16 * 1024);
+  }
+}
@@ -0,0 +1,20 @@
+package com.donesvad.rest.client;
+
+import lombok.Builder;
+
+/**
+ * Sizing and lifetime settings of the HTTP connection pool shared by all {@link ApiClient} calls.
+ *
+ * @param maxTotal maximum number of pooled connections across all routes
+ * @param maxPerRoute maximum number of pooled connections to a single host
+ * @param keepAliveMs upper bound for how long an idle connection may be kept alive for reuse
+ * @param idleEvictionMs idle connections older than this are closed by the background evictor
+ */
+@Builder
+public record ConnectionPoolSettings(
+    int maxTotal, int maxPerRoute, long keepAliveMs, long idleEvictionMs) {
+
+  public static ConnectionPoolSettings defaults() {
+    return new ConnectionPoolSettings(64, 32, 30_000L, 10_000L);
+  }
+}
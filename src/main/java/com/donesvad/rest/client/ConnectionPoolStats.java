@@ -0,0 +1,11 @@
+package com.donesvad.rest.client;
+
+/**
+ * Point-in-time snapshot of the shared HTTP connection pool.
+ *
+ * @param leased connections currently handed out to in-flight requests
+ * @param idle open connections waiting in the pool for reuse
+ * @param pending requests blocked waiting for a connection to become available
+ * @param max configured maximum number of connections
+ */
+public record ConnectionPoolStats(int leased, int idle, int pending, int max) {}
@@ -0,0 +1,49 @@
+package com.donesvad.rest.client;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.protocol.HttpContext;
+
+/**
+ * Gzips request bodies of a known length of at least {@code minBytes}. It has to run before the
+ * standard protocol interceptors, which then derive {@code Content-Length} and {@code
+ * Content-Encoding} from the compressed entity.
+ */
+final class GzipRequestInterceptor implements HttpRequestInterceptor {
+
+  private final int minBytes;
+
+  GzipRequestInterceptor(int minBytes) {
+    this.minBytes = minBytes;
+  }
+
+  @Override
+  public void process(HttpRequest request, HttpContext context) throws IOException {
+    if (!(request instanceof HttpEntityEnclosingRequest enclosing)
+        || request.containsHeader(HttpHeaders.CONTENT_ENCODING)) {
+      return;
+    }
+    HttpEntity entity = enclosing.getEntity();
+    if (entity == null
+        || entity.getContentEncoding() != null
+        || entity.getContentLength() < Math.max(1, minBytes)) {
+      return;
+    }
+    ByteArrayOutputStream buffer =
+        new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE, entity.getContentLength() / 4));
+    try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+      entity.writeTo(gzip);
+    }
+    ByteArrayEntity compressed = new ByteArrayEntity(buffer.toByteArray());
+    compressed.setContentType(entity.getContentType());
+    compressed.setContentEncoding("gzip");
+    enclosing.setEntity(compressed);
+  }
+}
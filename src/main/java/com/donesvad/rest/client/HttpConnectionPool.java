@@ -0,0 +1,76 @@
+package com.donesvad.rest.client;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.apachecommons.CommonsLog;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+
+/**
+ * Bounded keep-alive connection pool shared by every request of an {@link ApiClient}.
+ *
+ * <p>REST Assured only accepts {@code AbstractHttpClient} instances and by default creates a new
+ * client with its own single-connection manager per request. {@link #newHttpClient()} instead
+ * returns a lightweight client bound to one shared pooling manager, so connections are reused
+ * across requests and threads while per-request client state stays isolated.
+ */
+@CommonsLog
+@SuppressWarnings("deprecation") // REST Assured is built on the legacy HttpClient 4 API
+public class HttpConnectionPool implements AutoCloseable {
+
+  private final ConnectionPoolSettings settings;
+  private final PoolingClientConnectionManager manager;
+  private final ScheduledExecutorService evictor;
+
+  public HttpConnectionPool(ConnectionPoolSettings settings) {
+    this.settings = settings;
+    this.manager = new PoolingClientConnectionManager();
+    manager.setMaxTotal(settings.maxTotal());
+    manager.setDefaultMaxPerRoute(settings.maxPerRoute());
+
+    this.evictor =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "tc-http-pool-evictor");
+              t.setDaemon(true);
+              return t;
+            });
+    long period = Math.max(1_000L, settings.idleEvictionMs() / 2);
+    evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /** Creates a client for a single REST Assured request, backed by the shared pool. */
+  public DefaultHttpClient newHttpClient() {
+    DefaultHttpClient client = new DefaultHttpClient(manager);
+    client.setKeepAliveStrategy(
+        (response, context) -> {
+          long serverMs =
+              DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+          return serverMs > 0
+              ? Math.min(serverMs, settings.keepAliveMs())
+              : settings.keepAliveMs();
+        });
+    return client;
+  }
+
+  public ConnectionPoolStats stats() {
+    PoolStats total = manager.getTotalStats();
+    return new ConnectionPoolStats(
+        total.getLeased(), total.getAvailable(), total.getPending(), total.getMax());
+  }
+
+  private void evictIdle() {
+    manager.closeExpiredConnections();
+    manager.closeIdleConnections(settings.idleEvictionMs(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void close() {
+    log.info(String.format("[HttpConnectionPool] shutting down, final stats: %s", stats()));
+    evictor.shutdownNow();
+    manager.shutdown();
+  }
+}
@@ -0,0 +1,115 @@
+package com.donesvad.rest.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily reads the elements of one top-level array field of a TeamCity list response (e.g. {@code
+ * project} in {@code {"count":2,"project":[...]}}) straight from the HTTP input stream. Only the
+ * element being consumed is held in memory, regardless of the size of the listing.
+ */
+final class JsonArrayStream<T> implements Iterator<T>, AutoCloseable {
+
+  private final JsonParser parser;
+  private final ObjectMapper mapper;
+  private final Class<T> type;
+  private T next;
+  private boolean done;
+
+  private JsonArrayStream(JsonParser parser, ObjectMapper mapper, Class<T> type) {
+    this.parser = parser;
+    this.mapper = mapper;
+    this.type = type;
+  }
+
+  /**
+   * Returns a sequential stream over {@code arrayField} elements. The stream closes the input when
+   * the array is exhausted or when the stream itself is closed, whichever comes first.
+   */
+  static <T> Stream<T> of(InputStream in, ObjectMapper mapper, String arrayField, Class<T> type) {
+    JsonArrayStream<T> it;
+    try {
+      it = new JsonArrayStream<>(mapper.getFactory().createParser(in), mapper, type);
+      it.done = !it.moveToArray(arrayField);
+    } catch (IOException e) {
+      closeQuietly(in);
+      throw new UncheckedIOException("Cannot open JSON array '" + arrayField + "'", e);
+    }
+    if (it.done) {
+      it.close();
+    }
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(it::close);
+  }
+
+  /** Positions the parser on the first element of the array; false if the field is absent. */
+  private boolean moveToArray(String arrayField) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      return false;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (arrayField.equals(field) && value == JsonToken.START_ARRAY) {
+        return true;
+      }
+      parser.skipChildren();
+    }
+    return false;
+  }
+
+  @Override
+  public boolean hasNext() {
+    if (next != null) return true;
+    if (done) return false;
+    try {
+      if (parser.nextToken() == JsonToken.START_OBJECT) {
+        next = mapper.readValue(parser, type);
+        return true;
+      }
+    } catch (IOException e) {
+      close();
+      throw new UncheckedIOException("Cannot read " + type.getSimpleName() + " element", e);
+    }
+    close();
+    return false;
+  }
+
+  @Override
+  public T next() {
+    if (!hasNext()) throw new NoSuchElementException();
+    T current = next;
+    next = null;
+    return current;
+  }
+
+  @Override
+  public void close() {
+    done = true;
+    try {
+      parser.close();
+    } catch (IOException ignored) {
+      // nothing to recover from while releasing the response stream
+    }
+  }
+
+  private static void closeQuietly(InputStream in) {
+    try {
+      in.close();
+    } catch (IOException ignored) {
+      // nothing to recover from while releasing the response stream
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package com.donesvad.rest.client;
+
+import lombok.Builder;
+
+/**
+ * Settings of the {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @param enabled when false every request is sent immediately
+ * @param initialLimit in-flight requests allowed before any latency has been observed
+ * @param minLimit the limit never shrinks below this
+ * @param maxLimit the limit never grows above this
+ * @param latencyThresholdMs a request slower than this counts as a congestion signal
+ * @param backoffRatio multiplicative decrease applied on congestion, e.g. 0.9
+ */
+@Builder
+public record LimiterSettings(
+    boolean enabled,
+    int initialLimit,
+    int minLimit,
+    int maxLimit,
+    long latencyThresholdMs,
+    double backoffRatio) {
+
+  public static LimiterSettings defaults() {
+    return new LimiterSettings(true, 16, 2, 64, 5_000L, 0.9);
+  }
+}
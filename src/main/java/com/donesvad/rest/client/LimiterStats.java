@@ -0,0 +1,11 @@
+package com.donesvad.rest.client;
+
+/**
+ * Snapshot of the {@link AdaptiveConcurrencyLimiter}.
+ *
+ * @param limit current number of requests allowed in flight
+ * @param inFlight requests currently sent to the server
+ * @param queued requests waiting for a slot
+ * @param congestionSignals requests that were slow or failed with 5xx/429/I-O errors
+ */
+public record LimiterStats(int limit, int inFlight, int queued, long congestionSignals) {}
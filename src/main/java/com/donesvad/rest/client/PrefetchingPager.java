@@ -0,0 +1,82 @@
+package com.donesvad.rest.client;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Walks a {@code count/start} paged TeamCity listing and requests page N+1 in the background as soon
+ * as page N arrives, so fetching overlaps with the caller consuming the previous page. At most two
+ * pages are held in memory at a time. A page shorter than the page size ends the listing.
+ */
+final class PrefetchingPager<T> implements Iterator<List<T>> {
+
+  private static final ExecutorService PREFETCH = Executors.newVirtualThreadPerTaskExecutor();
+
+  private final IntFunction<List<T>> fetchPage;
+  private final int pageSize;
+  private CompletableFuture<List<T>> pending;
+  private int nextStart;
+
+  private PrefetchingPager(IntFunction<List<T>> fetchPage, int pageSize) {
+    if (pageSize <= 0) throw new IllegalArgumentException("pageSize must be > 0: " + pageSize);
+    this.fetchPage = fetchPage;
+    this.pageSize = pageSize;
+    this.pending = fetch(0);
+  }
+
+  /**
+   * Lazily streams all items of the listing. {@code fetchPage} receives the start offset and
+   * returns the items of that page (never null).
+   */
+  static <T> Stream<T> stream(int pageSize, IntFunction<List<T>> fetchPage) {
+    PrefetchingPager<T> pager = new PrefetchingPager<>(fetchPage, pageSize);
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(pager, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(pager::cancel)
+        .flatMap(List::stream);
+  }
+
+  @Override
+  public boolean hasNext() {
+    return pending != null;
+  }
+
+  @Override
+  public List<T> next() {
+    if (pending == null) throw new NoSuchElementException();
+    List<T> page;
+    try {
+      page = pending.join();
+    } catch (CompletionException e) {
+      pending = null;
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      if (e.getCause() instanceof Error err) throw err;
+      throw e;
+    }
+    pending = page.size() < pageSize ? null : fetch(nextStart);
+    return page;
+  }
+
+  private CompletableFuture<List<T>> fetch(int start) {
+    nextStart = start + pageSize;
+    return CompletableFuture.supplyAsync(() -> fetchPage.apply(start), PREFETCH);
+  }
+
+  private void cancel() {
+    if (pending != null) {
+      pending.cancel(false);
+      pending = null;
+    }
+  }
+}
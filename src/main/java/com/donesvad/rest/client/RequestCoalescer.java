@@ -0,0 +1,59 @@
+package com.donesvad.rest.client;
+
+import io.restassured.response.Response;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of idempotent requests: while a request for a key is in flight, identical
+ * requests wait for it instead of hitting the server again. Every caller, the one that sent the
+ * request included, gets its own copy of the buffered response, so callers never share mutable
+ * REST Assured state. A request that joins one already in flight may see the state from before a
+ * write it made itself, which is why coalescing is opt-in.
+ */
+public class RequestCoalescer {
+
+  private final ConcurrentHashMap<String, CompletableFuture<Response>> inFlight =
+      new ConcurrentHashMap<>();
+  private final LongAdder executed = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  public Response execute(String key, Supplier<Response> call) {
+    CompletableFuture<Response> mine = new CompletableFuture<>();
+    CompletableFuture<Response> leader = inFlight.putIfAbsent(key, mine);
+    if (leader != null) {
+      coalesced.increment();
+      return Responses.copy(await(leader));
+    }
+    executed.increment();
+    try {
+      Response response = call.get();
+      mine.complete(response);
+      // the original stays untouched for the waiters to copy
+      return Responses.copy(response);
+    } catch (RuntimeException | Error e) {
+      mine.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, mine);
+    }
+  }
+
+  public CoalescingStats stats() {
+    return new CoalescingStats(executed.sum(), coalesced.sum());
+  }
+
+  private static Response await(CompletableFuture<Response> leader) {
+    try {
+      return leader.join();
+    } catch (CompletionException e) {
+      // rethrow the leader's failure as-is, e.g. a connection error
+      if (e.getCause() instanceof RuntimeException re) throw re;
+      if (e.getCause() instanceof Error err) throw err;
+      throw e;
+    }
+  }
+}
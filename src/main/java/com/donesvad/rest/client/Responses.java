@@ -0,0 +1,14 @@
+package com.donesvad.rest.client;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.response.Response;
+import lombok.experimental.UtilityClass;
+
+@UtilityClass
+class Responses {
+
+  /** Independent copy of an already buffered response, safe to hand to another caller. */
+  static Response copy(Response response) {
+    return new ResponseBuilder().clone(response).build();
+  }
+}
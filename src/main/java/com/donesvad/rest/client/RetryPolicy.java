@@ -0,0 +1,163 @@
+package com.donesvad.rest.client;
+
+import static org.apache.http.HttpStatus.SC_SERVICE_UNAVAILABLE;
+
+import io.restassured.response.Response;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.apachecommons.CommonsLog;
+
+/**
+ * Retries calls that failed with a 5xx, a 429 or an I/O error, with full-jitter exponential backoff
+ * (a {@code Retry-After} header is honoured up to the backoff cap). A retry budget bounds the share
+ * of retries relative to first attempts, so an outage does not multiply the load on TeamCity.
+ *
+ * <p>Only idempotent calls are simply repeated. A non-idempotent call supplies a lookup that runs
+ * before every retry: if it finds the resource the failed attempt was meant to create, that result
+ * is returned instead of sending the call again.
+ */
+@CommonsLog
+public class RetryPolicy {
+
+  private final RetrySettings settings;
+  private final LongAdder retries = new LongAdder();
+  private final LongAdder budgetExhausted = new LongAdder();
+  private final LongAdder alreadyApplied = new LongAdder();
+  private double budget;
+
+  public RetryPolicy(RetrySettings settings) {
+    this.settings = settings;
+    this.budget = settings.budgetReserve();
+  }
+
+  /** Runs an idempotent call. */
+  public Response execute(String description, Supplier<Response> call) {
+    return execute(description, call, null);
+  }
+
+  /**
+   * Runs a call; {@code lookupApplied}, if not null, returns the outcome of an earlier attempt that
+   * did reach the server (e.g. a GET of the created resource), or null if there is none.
+   */
+  public Response execute(
+      String description, Supplier<Response> call, Supplier<Response> lookupApplied) {
+    deposit();
+    for (int attempt = 1; ; attempt++) {
+      Response response = null;
+      Throwable failure = null;
+      try {
+        response = call.get();
+        if (!ApiClient.isServerBusy(response)) {
+          return response;
+        }
+      } catch (Throwable e) {
+        // REST Assured rethrows checked I/O exceptions undeclared
+        if (!isIoError(e)) {
+          throw sneaky(e);
+        }
+        failure = e;
+      }
+      if (attempt >= settings.maxAttempts()) {
+        return outcome(response, failure);
+      }
+      if (!withdraw()) {
+        budgetExhausted.increment();
+        return outcome(response, failure);
+      }
+      long backoffMs = backoffMs(attempt, response);
+      log.info(
+          String.format(
+              "[Retry] %s failed (attempt %d: %s), retrying in %d ms",
+              description,
+              attempt,
+              failure != null ? failure.toString() : "HTTP " + response.statusCode(),
+              backoffMs));
+      if (!sleep(backoffMs)) {
+        return outcome(response, failure);
+      }
+      if (lookupApplied != null) {
+        Response applied;
+        try {
+          applied = lookupApplied.get();
+        } catch (Throwable e) {
+          log.warn(
+              String.format("[Retry] cannot tell if %s was applied, not retrying", description), e);
+          return outcome(response, failure);
+        }
+        if (applied != null) {
+          alreadyApplied.increment();
+          log.info(String.format("[Retry] %s was applied by the failed attempt", description));
+          return applied;
+        }
+      }
+      retries.increment();
+    }
+  }
+
+  public RetryStats stats() {
+    return new RetryStats(retries.sum(), budgetExhausted.sum(), alreadyApplied.sum());
+  }
+
+  private static boolean isIoError(Throwable e) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (t instanceof IOException) return true;
+    }
+    return false;
+  }
+
+  private long backoffMs(int attempt, Response response) {
+    long cap = Math.min(settings.maxBackoffMs(), settings.initialBackoffMs() << (attempt - 1));
+    long backoff = ThreadLocalRandom.current().nextLong(Math.max(1, cap) + 1);
+    if (response != null
+        && (response.statusCode() == ApiClient.SC_TOO_MANY_REQUESTS
+            || response.statusCode() == SC_SERVICE_UNAVAILABLE)) {
+      backoff = Math.max(backoff, retryAfterMs(response));
+    }
+    return Math.min(backoff, settings.maxBackoffMs());
+  }
+
+  /** {@code Retry-After} in delay-seconds form; the HTTP-date form is ignored. */
+  private static long retryAfterMs(Response response) {
+    String value = response.getHeader("Retry-After");
+    if (value == null) return 0;
+    try {
+      return Long.parseLong(value.trim()) * 1_000L;
+    } catch (NumberFormatException e) {
+      return 0;
+    }
+  }
+
+  private synchronized void deposit() {
+    budget = Math.min(Math.max(settings.budgetReserve(), 1), budget + settings.budgetRatio());
+  }
+
+  private synchronized boolean withdraw() {
+    if (budget < 1) return false;
+    budget -= 1;
+    return true;
+  }
+
+  private static Response outcome(Response response, Throwable failure) {
+    if (failure != null) {
+      throw sneaky(failure);
+    }
+    return response;
+  }
+
+  private static boolean sleep(long ms) {
+    try {
+      Thread.sleep(ms);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <E extends Throwable> RuntimeException sneaky(Throwable e) throws E {
+    throw (E) e;
+  }
+}
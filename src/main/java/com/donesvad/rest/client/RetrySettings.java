@@ -0,0 +1,27 @@
+package com.donesvad.rest.client;
+
+import lombok.Builder;
+
+/**
+ * Settings of the {@link RetryPolicy}.
+ *
+ * @param enabled when false every request is sent exactly once
+ * @param maxAttempts attempts per call including the first one
+ * @param initialBackoffMs upper bound of the first backoff; doubled on every further retry
+ * @param maxBackoffMs cap of a single backoff, also applied to {@code Retry-After}
+ * @param budgetRatio long-term share of retries relative to first attempts, e.g. 0.2
+ * @param budgetReserve retries available in a burst before the ratio kicks in
+ */
+@Builder
+public record RetrySettings(
+    boolean enabled,
+    int maxAttempts,
+    long initialBackoffMs,
+    long maxBackoffMs,
+    double budgetRatio,
+    int budgetReserve) {
+
+  public static RetrySettings defaults() {
+    return new RetrySettings(true, 3, 200L, 5_000L, 0.2, 10);
+  }
+}
@@ -0,0 +1,10 @@
+package com.donesvad.rest.client;
+
+/**
+ * Counters of the {@link RetryPolicy}.
+ *
+ * @param retries attempts after the first one
+ * @param budgetExhausted retries skipped because the retry budget was empty
+ * @param alreadyApplied POSTs whose failed attempt turned out to have succeeded on the server
+ */
+public record RetryStats(long retries, long budgetExhausted, long alreadyApplied) {}
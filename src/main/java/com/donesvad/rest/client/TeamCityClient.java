@@ -1,20 +1,29 @@
 package com.donesvad.rest.client;
 
+import static org.apache.http.HttpStatus.SC_NOT_FOUND;
 import static org.apache.http.HttpStatus.SC_NO_CONTENT;
 import static org.apache.http.HttpStatus.SC_OK;
 import static org.hamcrest.Matchers.anyOf;
 import static org.hamcrest.Matchers.equalTo;
 
 import com.donesvad.rest.dto.ParametersDto;
+import com.donesvad.rest.dto.audit.AuditEventsDto;
+import com.donesvad.rest.dto.buildtype.BuildTypeDto;
 import com.donesvad.rest.dto.buildtype.BuildTypesDto;
 import com.donesvad.rest.dto.project.CreateProjectRequest;
 import com.donesvad.rest.dto.project.ProjectDto;
 import com.donesvad.rest.dto.project.ProjectsDto;
 import com.donesvad.rest.dto.vcs.CreateVcsRootRequest;
+import com.donesvad.rest.dto.vcs.Property;
 import com.donesvad.rest.dto.vcs.VersionedSettingsConfigRequest;
 import com.donesvad.rest.dto.vcs.VersionedSettingsStatusDto;
+import com.donesvad.rest.endpoints.Fields;
+import com.donesvad.rest.endpoints.Locator;
 import com.donesvad.rest.endpoints.TeamCityEndpoints;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.restassured.response.Response;
+import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
 
@@ -23,9 +32,15 @@ import lombok.extern.apachecommons.CommonsLog;
 public class TeamCityClient {
 
   private final ApiClient api;
+  private final ObjectMapper objectMapper;
+  private final ApiResponseCache cache;
+
+  public TeamCityClient(ApiClient api, ObjectMapper objectMapper) {
+    this(api, objectMapper, ApiResponseCache.disabled());
+  }
 
   public Response getProjectResponse(String projectId) {
-    return api.get(TeamCityEndpoints.projectById(projectId));
+    return cache.get(api, TeamCityEndpoints.projectById(projectId), projectId);
   }
 
   public ProjectDto getProject(String projectId) {
@@ -33,23 +48,97 @@ public class TeamCityClient {
   }
 
   public BuildTypesDto getProjectBuildTypes(String projectId) {
-    return api.get(TeamCityEndpoints.projectBuildTypes(projectId))
-        .then()
-        .statusCode(SC_OK)
-        .extract()
-        .as(BuildTypesDto.class);
+    BuildTypesDto buildTypes =
+        cache
+            .get(api, TeamCityEndpoints.projectBuildTypes(projectId), projectId)
+            .then()
+            .statusCode(SC_OK)
+            .extract()
+            .as(BuildTypesDto.class);
+    if (buildTypes.getBuildType() != null) {
+      buildTypes.getBuildType().forEach(bt -> cache.linkBuildType(bt.getId(), projectId));
+    }
+    return buildTypes;
   }
 
   public ProjectsDto getProjects() {
-    return api.get(TeamCityEndpoints.PROJECTS)
+    return cache
+        .get(api, TeamCityEndpoints.PROJECTS, ApiResponseCache.LISTING_SCOPE)
         .then()
         .statusCode(SC_OK)
         .extract()
         .as(ProjectsDto.class);
   }
 
+  /**
+   * Streams /app/rest/projects element by element instead of materializing {@link ProjectsDto}.
+   * Close the returned stream (try-with-resources) if it is not consumed to the end.
+   */
+  public Stream<ProjectDto> streamProjects() {
+    return streamList(TeamCityEndpoints.PROJECTS, "project", ProjectDto.class);
+  }
+
+  /** Streaming counterpart of {@link #getProjectBuildTypes(String)}. */
+  public Stream<BuildTypeDto> streamProjectBuildTypes(String projectId) {
+    return streamList(
+        TeamCityEndpoints.projectBuildTypes(projectId), "buildType", BuildTypeDto.class);
+  }
+
+  /**
+   * Pages through /app/rest/projects with {@code count/start} locators, prefetching the next page
+   * while the current one is consumed. {@code fields} may be null; when set, it must keep the
+   * {@code project} list (e.g. {@code count,project(id)}).
+   */
+  public Stream<ProjectDto> getProjectsPaged(int pageSize, Fields fields) {
+    return PrefetchingPager.stream(
+        pageSize,
+        start ->
+            items(
+                api.get(TeamCityEndpoints.projects(Locator.page(start, pageSize), fields))
+                    .then()
+                    .statusCode(SC_OK)
+                    .extract()
+                    .as(ProjectsDto.class)
+                    .getProject()));
+  }
+
+  public Stream<ProjectDto> getProjectsPaged(int pageSize) {
+    return getProjectsPaged(pageSize, null);
+  }
+
+  /** Paged counterpart of {@link #getProjectBuildTypes(String)}. */
+  public Stream<BuildTypeDto> getProjectBuildTypesPaged(
+      String projectId, int pageSize, Fields fields) {
+    return PrefetchingPager.stream(
+        pageSize,
+        start ->
+            items(
+                api.get(
+                        TeamCityEndpoints.projectBuildTypes(
+                            projectId, Locator.page(start, pageSize), fields))
+                    .then()
+                    .statusCode(SC_OK)
+                    .extract()
+                    .as(BuildTypesDto.class)
+                    .getBuildType()));
+  }
+
+  public Stream<BuildTypeDto> getProjectBuildTypesPaged(String projectId, int pageSize) {
+    return getProjectBuildTypesPaged(projectId, pageSize, null);
+  }
+
+  /**
+   * Creates the project. A failed attempt is retried only if a GET shows that the project with the
+   * requested id does not exist yet.
+   */
   public void createProjectUnderRoot(CreateProjectRequest req) {
-    api.post(TeamCityEndpoints.PROJECTS, req)
+    Response response =
+        api.post(
+            TeamCityEndpoints.PROJECTS,
+            req,
+            req.id() != null ? () -> existing(TeamCityEndpoints.projectById(req.id())) : null);
+    cache.invalidateProject(req.id());
+    response
         .then()
         .statusCode(SC_OK)
         .extract()
@@ -57,22 +146,64 @@ public class TeamCityClient {
   }
 
   public void deleteProject(String projectId) {
-    api.delete(TeamCityEndpoints.projectById(projectId))
+    Response response = api.delete(TeamCityEndpoints.projectById(projectId));
+    cache.invalidateProject(projectId);
+    response
         .then()
         .statusCode(anyOf(equalTo(SC_OK), equalTo(SC_NO_CONTENT)));
   }
 
+  /** Deletes the project in a single call; false if it did not exist. */
+  public boolean deleteProjectIfExists(String projectId) {
+    Response response = api.delete(TeamCityEndpoints.projectById(projectId));
+    cache.invalidateProject(projectId);
+    if (response.statusCode() == SC_NOT_FOUND) {
+      return false;
+    }
+    response
+        .then()
+        .statusCode(anyOf(equalTo(SC_OK), equalTo(SC_NO_CONTENT)));
+    return true;
+  }
+
+  /** Deletes the VCS root in a single call; false if it did not exist. */
+  public boolean deleteVcsRootIfExists(String vcsRootId) {
+    Response response = api.delete(TeamCityEndpoints.vcsRootById(vcsRootId));
+    if (response.statusCode() == SC_NOT_FOUND) {
+      return false;
+    }
+    response
+        .then()
+        .statusCode(anyOf(equalTo(SC_OK), equalTo(SC_NO_CONTENT)));
+    return true;
+  }
+
+  /**
+   * Creates the VCS root and returns its id. A failed attempt is retried only if a GET shows that
+   * the VCS root with the requested id does not exist yet.
+   */
   public String createVcsRoot(CreateVcsRootRequest req) {
-    return api.post(TeamCityEndpoints.VCS_ROOTS, req).then().statusCode(SC_OK).extract().path("id");
+    Response response =
+        api.post(
+            TeamCityEndpoints.VCS_ROOTS,
+            req,
+            req.getId() != null
+                ? () -> existing(TeamCityEndpoints.vcsRootById(req.getId()))
+                : null);
+    cache.invalidateProject(req.getProject() != null ? req.getProject().id() : null);
+    return response.then().statusCode(SC_OK).extract().path("id");
   }
 
   public void putVersionedSettingsConfig(String projectId, VersionedSettingsConfigRequest cfg) {
     Response response = api.put(TeamCityEndpoints.projectVsConfig(projectId), cfg);
+    cache.invalidateProject(projectId);
     response.then().statusCode(SC_OK);
   }
 
   public void loadVersionedSettings(String projectId) {
-    api.post(TeamCityEndpoints.projectVsLoad(projectId)).then().statusCode(SC_OK);
+    Response response = api.post(TeamCityEndpoints.projectVsLoad(projectId));
+    cache.invalidateProject(projectId);
+    response.then().statusCode(SC_OK);
   }
 
   public Response getVersionedSettingsStatusResponse(String projectId) {
@@ -87,11 +218,75 @@ public class TeamCityClient {
         .as(VersionedSettingsStatusDto.class);
   }
 
+  /** One page of the audit log, newest events first. Never cached. */
+  public AuditEventsDto getAuditEvents(Locator locator, Fields fields) {
+    return api.get(TeamCityEndpoints.audit(locator, fields))
+        .then()
+        .statusCode(SC_OK)
+        .extract()
+        .as(AuditEventsDto.class);
+  }
+
   public ParametersDto getBuildTypeParameters(String buildTypeId) {
-    return api.get(TeamCityEndpoints.buildTypeParameters(buildTypeId))
+    return cache
+        .get(
+            api,
+            TeamCityEndpoints.buildTypeParameters(buildTypeId),
+            ApiResponseCache.buildTypeScope(buildTypeId))
         .then()
         .statusCode(SC_OK)
         .extract()
         .as(ParametersDto.class);
   }
+
+  /** Paged counterpart of {@link #getBuildTypeParameters(String)}. */
+  public Stream<Property> getBuildTypeParametersPaged(
+      String buildTypeId, int pageSize, Fields fields) {
+    return PrefetchingPager.stream(
+        pageSize,
+        start ->
+            items(
+                api.get(
+                        TeamCityEndpoints.buildTypeParameters(
+                            buildTypeId, Locator.page(start, pageSize), fields))
+                    .then()
+                    .statusCode(SC_OK)
+                    .extract()
+                    .as(ParametersDto.class)
+                    .getProperty()));
+  }
+
+  public Stream<Property> getBuildTypeParametersPaged(String buildTypeId, int pageSize) {
+    return getBuildTypeParametersPaged(buildTypeId, pageSize, null);
+  }
+
+  public ApiResponseCacheStats cacheStats() {
+    return cache.stats();
+  }
+
+  /** The resource at {@code path}, or null if it does not exist. */
+  private Response existing(String path) {
+    Response response = api.get(path);
+    if (response.statusCode() == SC_NOT_FOUND) {
+      return null;
+    }
+    if (response.statusCode() != SC_OK) {
+      throw new IllegalStateException("GET " + path + " answered " + response.statusCode());
+    }
+    return response;
+  }
+
+  // TeamCity omits the list field entirely when a page is empty
+  private static <T> List<T> items(List<T> page) {
+    return page != null ? page : List.of();
+  }
+
+  private <T> Stream<T> streamList(String path, String arrayField, Class<T> type) {
+    Response response = api.getStreaming(path);
+    if (response.statusCode() != SC_OK) {
+      // buffers the (small) error body and fails with the usual REST Assured message
+      response.then().statusCode(SC_OK);
+    }
+    return JsonArrayStream.of(response.asInputStream(), objectMapper, arrayField, type);
+  }
 }
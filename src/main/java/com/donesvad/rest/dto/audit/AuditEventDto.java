@@ -0,0 +1,65 @@
+package com.donesvad.rest.dto.audit;
+
+import com.donesvad.rest.dto.buildtype.BuildTypeDto;
+import com.donesvad.rest.dto.project.ProjectDto;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.Data;
+
+/**
+ * A single TeamCity audit record: who did what ({@code action}, {@code comment}) to which projects,
+ * build types and VCS roots ({@code relatedEntities}). Ids grow with time.
+ */
+@Data
+public class AuditEventDto {
+  private Long id;
+  private String timestamp;
+  private Action action;
+  private Comment comment;
+  private RelatedEntities relatedEntities;
+
+  /** External ids of all related projects, build types and VCS roots. */
+  public List<String> relatedIds() {
+    if (relatedEntities == null || relatedEntities.getEntity() == null) {
+      return List.of();
+    }
+    return relatedEntities.getEntity().stream()
+        .flatMap(
+            e ->
+                Stream.of(
+                    e.getProject() != null ? e.getProject().getId() : null,
+                    e.getBuildType() != null ? e.getBuildType().getId() : null,
+                    e.getVcsRoot() != null ? e.getVcsRoot().getId() : null))
+        .filter(Objects::nonNull)
+        .toList();
+  }
+
+  @Data
+  public static class Action {
+    private String name;
+  }
+
+  @Data
+  public static class Comment {
+    private String text;
+  }
+
+  @Data
+  public static class RelatedEntities {
+    private List<RelatedEntity> entity;
+  }
+
+  @Data
+  public static class RelatedEntity {
+    private String type;
+    private ProjectDto project;
+    private BuildTypeDto buildType;
+    private VcsRootRef vcsRoot;
+  }
+
+  @Data
+  public static class VcsRootRef {
+    private String id;
+  }
+}
@@ -0,0 +1,11 @@
+package com.donesvad.rest.dto.audit;
+
+import java.util.List;
+import lombok.Data;
+
+/** DTO for GET /app/rest/audit (newest events first). */
+@Data
+public class AuditEventsDto {
+  private Integer count;
+  private List<AuditEventDto> auditEvent;
+}
@@ -0,0 +1,22 @@
+package com.donesvad.rest.endpoints;
+
+/**
+ * TeamCity {@code fields} projection, e.g. {@code count,project(id,name)}. Only the listed fields
+ * are serialized by the server, which keeps large listings small.
+ */
+public record Fields(String value) {
+
+  public static Fields of(String... fields) {
+    return new Fields(String.join(",", fields));
+  }
+
+  /** Nested projection of a field, e.g. {@code nested("project", "id", "name")}. */
+  public static String nested(String field, String... subFields) {
+    return field + "(" + String.join(",", subFields) + ")";
+  }
+
+  @Override
+  public String toString() {
+    return value;
+  }
+}
@@ -0,0 +1,61 @@
+package com.donesvad.rest.endpoints;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable TeamCity locator, e.g. {@code project:(id:Foo),count:100,start:200}. Dimensions keep
+ * insertion order; setting a dimension again replaces its value.
+ */
+public final class Locator {
+
+  private final Map<String, String> dimensions;
+
+  private Locator(Map<String, String> dimensions) {
+    this.dimensions = dimensions;
+  }
+
+  public static Locator create() {
+    return new Locator(new LinkedHashMap<>());
+  }
+
+  /** Locator selecting one page of {@code count} items starting at offset {@code start}. */
+  public static Locator page(int start, int count) {
+    return create().count(count).start(start);
+  }
+
+  public Locator with(String dimension, Object value) {
+    Map<String, String> copy = new LinkedHashMap<>(dimensions);
+    copy.put(dimension, String.valueOf(value));
+    return new Locator(copy);
+  }
+
+  /** Nested locator dimension, e.g. {@code project:(id:Foo)}. */
+  public Locator with(String dimension, Locator nested) {
+    return with(dimension, "(" + nested + ")");
+  }
+
+  public Locator id(String id) {
+    return with("id", id);
+  }
+
+  public Locator count(int count) {
+    return with("count", count);
+  }
+
+  public Locator start(int start) {
+    return with("start", start);
+  }
+
+  public boolean isEmpty() {
+    return dimensions.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return dimensions.entrySet().stream()
+        .map(e -> e.getKey() + ":" + e.getValue())
+        .collect(Collectors.joining(","));
+  }
+}
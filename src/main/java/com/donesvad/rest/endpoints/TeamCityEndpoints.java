@@ -1,5 +1,6 @@
 package com.donesvad.rest.endpoints;
 
+import java.util.regex.Pattern;
 import lombok.experimental.UtilityClass;
 
 @UtilityClass
@@ -14,11 +15,20 @@ public class TeamCityEndpoints {
   public static final String PARAMETERS = "/parameters";
   public static final String PROJECTS = REST + "/projects";
   public static final String VCS_ROOTS = REST + "/vcs-roots";
+  public static final String AUDIT = REST + "/audit";
+  public static final String LOCATOR = "locator=";
+  public static final String FIELDS = "fields=";
+
+  private static final Pattern ID_SEGMENT = Pattern.compile(ID_PARAM + "[^/]+");
 
   public static String projectById(String projectId) {
     return PROJECTS + ID_PARAM + projectId;
   }
 
+  public static String vcsRootById(String vcsRootId) {
+    return VCS_ROOTS + ID_PARAM + vcsRootId;
+  }
+
   public static String projectBuildTypes(String projectId) {
     return projectById(projectId) + BUILD_TYPES;
   }
@@ -42,4 +52,60 @@ public class TeamCityEndpoints {
   public static String buildTypeParameters(String buildTypeId) {
     return buildTypeById(buildTypeId) + PARAMETERS;
   }
+
+  public static String projects(Locator locator, Fields fields) {
+    return withQuery(PROJECTS, locator, fields);
+  }
+
+  /** Build types of a single project, addressed via the buildTypes listing so it can be paged. */
+  public static String projectBuildTypes(String projectId, Locator locator, Fields fields) {
+    return withQuery(
+        REST + BUILD_TYPES, locator.with("project", Locator.create().id(projectId)), fields);
+  }
+
+  public static String buildTypeParameters(String buildTypeId, Locator locator, Fields fields) {
+    return withQuery(buildTypeParameters(buildTypeId), locator, fields);
+  }
+
+  public static String audit(Locator locator, Fields fields) {
+    return withQuery(AUDIT, locator, fields);
+  }
+
+  /**
+   * Appends {@code locator} and {@code fields} query parameters; either may be null. Values are
+   * left unencoded (TeamCity locator syntax is URI-safe) and encoded by the HTTP client.
+   */
+  public static String withQuery(String path, Locator locator, Fields fields) {
+    StringBuilder sb = new StringBuilder(path);
+    char sep = '?';
+    if (locator != null && !locator.isEmpty()) {
+      sb.append(sep).append(LOCATOR).append(locator);
+      sep = '&';
+    }
+    if (fields != null) {
+      sb.append(sep).append(FIELDS).append(fields);
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Logical endpoint of a concrete path for metrics and logs: ids become {@code {id}} and query
+   * values are dropped, e.g. {@code /app/rest/projects/id:Foo/buildTypes} becomes {@code
+   * /app/rest/projects/id:{id}/buildTypes} and {@code /app/rest/projects?locator=count:5} becomes
+   * {@code /app/rest/projects?locator={locator}}.
+   */
+  public static String template(String path) {
+    int query = path.indexOf('?');
+    String base = query < 0 ? path : path.substring(0, query);
+    StringBuilder sb = new StringBuilder(ID_SEGMENT.matcher(base).replaceAll(ID_PARAM + "{id}"));
+    if (query >= 0) {
+      char sep = '?';
+      for (String param : path.substring(query + 1).split("&")) {
+        String name = param.contains("=") ? param.substring(0, param.indexOf('=')) : param;
+        sb.append(sep).append(name).append("={").append(name).append('}');
+        sep = '&';
+      }
+    }
+    return sb.toString();
+  }
 }
@@ -0,0 +1,25 @@
+package com.donesvad.rest.metrics;
+
+import java.util.Map;
+import java.util.Set;
+
+/** Point-in-time view of a {@link LatencyTimer}; all durations are in seconds. */
+public record LatencySnapshot(
+    long count,
+    double sumSeconds,
+    double p50,
+    double p95,
+    double p99,
+    double max,
+    Map<String, Long> outcomes) {
+
+  private static final Set<String> SUCCESS = Set.of("2xx", "3xx", "ok");
+
+  /** Outcomes other than a 2xx/3xx status or {@code ok}. */
+  public long errors() {
+    return outcomes.entrySet().stream()
+        .filter(e -> !SUCCESS.contains(e.getKey()))
+        .mapToLong(Map.Entry::getValue)
+        .sum();
+  }
+}
@@ -0,0 +1,48 @@
+package com.donesvad.rest.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latency distribution of one metric series plus a count per outcome (e.g. {@code 2xx}, {@code
+ * 5xx}, {@code error} for a call that failed without a response). Values are kept in microseconds with three significant digits, so
+ * percentiles stay accurate from sub-millisecond to multi-minute calls at a fixed memory cost.
+ */
+public final class LatencyTimer {
+
+  private final ConcurrentHistogram histogram = new ConcurrentHistogram(3);
+  private final LongAdder totalNanos = new LongAdder();
+  private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+
+  LatencyTimer() {}
+
+  public void record(long nanos, String outcome) {
+    long micros = Math.max(1, TimeUnit.NANOSECONDS.toMicros(nanos));
+    histogram.recordValue(micros);
+    totalNanos.add(nanos);
+    outcomes.computeIfAbsent(outcome, o -> new LongAdder()).increment();
+  }
+
+  public LatencySnapshot snapshot() {
+    Histogram copy = histogram.copy();
+    Map<String, Long> counts = new TreeMap<>();
+    outcomes.forEach((outcome, count) -> counts.put(outcome, count.sum()));
+    return new LatencySnapshot(
+        copy.getTotalCount(),
+        totalNanos.sum() / 1e9,
+        micros(copy.getValueAtPercentile(50)),
+        micros(copy.getValueAtPercentile(95)),
+        micros(copy.getValueAtPercentile(99)),
+        micros(copy.getMaxValue()),
+        counts);
+  }
+
+  private static double micros(long value) {
+    return value / 1e6;
+  }
+}
@@ -0,0 +1,213 @@
+package com.donesvad.rest.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Run-level metrics: latency timers grouped into families (one series per label set), and gauges
+ * and counters sampled at export time. A single {@link #global()} instance collects everything recorded during a
+ * test run so it can be exported once at the end in OpenMetrics text format.
+ *
+ * <p>A timer family {@code B} is exported as {@code B_duration_seconds} (summary with p50/p95/p99),
+ * {@code B_max_seconds}, {@code B_outcomes_total} (per outcome) and {@code
+ * B_throughput_per_second} (calls per second of run time). A counter {@code C} is exported as
+ * {@code C_total}.
+ */
+public final class MetricsRegistry {
+
+  private static final MetricsRegistry GLOBAL = new MetricsRegistry();
+
+  private final long startNanos = System.nanoTime();
+  private final Map<String, TimerFamily> timers = new ConcurrentSkipListMap<>();
+  private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>();
+  private final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+
+  public static MetricsRegistry global() {
+    return GLOBAL;
+  }
+
+  /**
+   * Returns the timer of family {@code name} for the given label pairs ({@code "method", "GET",
+   * "endpoint", "/app/rest/projects"}), creating it on first use.
+   */
+  public LatencyTimer timer(String name, String help, String... labels) {
+    if (labels.length % 2 != 0) {
+      throw new IllegalArgumentException("labels must be name/value pairs");
+    }
+    return timers
+        .computeIfAbsent(name, n -> new TimerFamily(help, new ConcurrentSkipListMap<>()))
+        .series()
+        .computeIfAbsent(renderLabels(labels), l -> new LatencyTimer());
+  }
+
+  /** Registers (or replaces) a gauge whose value is read when the metrics are exported. */
+  public void gauge(String name, String help, DoubleSupplier value) {
+    gauges.put(name, new Gauge(help, value));
+  }
+
+  /**
+   * Registers (or replaces) a counter, a count that only ever increases, read when the metrics are
+   * exported. {@code name} is the family name, without the {@code _total} suffix of its sample.
+   */
+  public void counter(String name, String help, LongSupplier value) {
+    counters.put(name, new Counter(help, value));
+  }
+
+  public String toOpenMetrics() {
+    double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    StringBuilder sb = new StringBuilder();
+    timers.forEach((name, family) -> appendTimerFamily(sb, name, family, elapsedSeconds));
+    gauges.forEach(
+        (name, gauge) -> {
+          header(sb, name, "gauge", gauge.help());
+          sb.append(name).append(' ').append(gauge.value().getAsDouble()).append('\n');
+        });
+    counters.forEach(
+        (name, counter) -> {
+          header(sb, name, "counter", counter.help());
+          sb.append(name).append("_total ").append(counter.value().getAsLong()).append('\n');
+        });
+    return sb.append("# EOF\n").toString();
+  }
+
+  public void writeOpenMetrics(Path file) {
+    try {
+      if (file.getParent() != null) {
+        Files.createDirectories(file.getParent());
+      }
+      Files.writeString(file, toOpenMetrics(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot write metrics to " + file, e);
+    }
+  }
+
+  /** Fixed-width table of every timer series, for humans reading a report. */
+  public String summaryTable() {
+    double elapsedSeconds = Math.max(1e-9, (System.nanoTime() - startNanos) / 1e9);
+    StringBuilder sb = new StringBuilder();
+    String row = "%-90s %8s %7s %9s %9s %9s %9s %8s%n";
+    timers.forEach(
+        (name, family) -> {
+          sb.append(name).append('\n');
+          sb.append(
+              String.format(row, "series", "count", "errors", "p50", "p95", "p99", "max", "rps"));
+          family
+              .series()
+              .forEach(
+                  (labels, timer) -> {
+                    LatencySnapshot s = timer.snapshot();
+                    sb.append(
+                        String.format(
+                            row,
+                            labels,
+                            s.count(),
+                            s.errors(),
+                            millis(s.p50()),
+                            millis(s.p95()),
+                            millis(s.p99()),
+                            millis(s.max()),
+                            String.format("%.2f", s.count() / elapsedSeconds)));
+                  });
+          sb.append('\n');
+        });
+    return sb.toString();
+  }
+
+  private static void appendTimerFamily(
+      StringBuilder sb, String name, TimerFamily family, double elapsedSeconds) {
+    String duration = name + "_duration_seconds";
+    // OpenMetrics wants the unit as the suffix of the name, so not duration + "_max"
+    String max = name + "_max_seconds";
+    Map<String, LatencySnapshot> snapshots = new ConcurrentSkipListMap<>();
+    family.series().forEach((labels, timer) -> snapshots.put(labels, timer.snapshot()));
+
+    header(sb, duration, "summary", family.help());
+    sb.append("# UNIT ").append(duration).append(" seconds\n");
+    snapshots.forEach(
+        (labels, s) -> {
+          sample(sb, duration, labels, "quantile=\"0.5\"", s.p50());
+          sample(sb, duration, labels, "quantile=\"0.95\"", s.p95());
+          sample(sb, duration, labels, "quantile=\"0.99\"", s.p99());
+          sample(sb, duration + "_sum", labels, null, s.sumSeconds());
+          sample(sb, duration + "_count", labels, null, s.count());
+        });
+
+    header(sb, max, "gauge", "Slowest call. " + family.help());
+    sb.append("# UNIT ").append(max).append(" seconds\n");
+    snapshots.forEach((labels, s) -> sample(sb, max, labels, null, s.max()));
+
+    header(sb, name + "_outcomes", "counter", "Calls by outcome. " + family.help());
+    snapshots.forEach(
+        (labels, s) ->
+            s.outcomes()
+                .forEach(
+                    (outcome, count) ->
+                        sample(
+                            sb,
+                            name + "_outcomes_total",
+                            labels,
+                            "outcome=\"" + escape(outcome) + "\"",
+                            count)));
+
+    header(sb, name + "_throughput_per_second", "gauge", "Calls per second of run time.");
+    snapshots.forEach(
+        (labels, s) ->
+            sample(sb, name + "_throughput_per_second", labels, null, s.count() / elapsedSeconds));
+  }
+
+  private static void header(StringBuilder sb, String name, String type, String help) {
+    sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    sb.append("# HELP ").append(name).append(' ').append(escapeHelp(help)).append('\n');
+  }
+
+  private static void sample(
+      StringBuilder sb, String name, String labels, String extraLabel, double value) {
+    sb.append(name);
+    String all =
+        extraLabel == null ? labels : labels.isEmpty() ? extraLabel : labels + ',' + extraLabel;
+    if (!all.isEmpty()) {
+      sb.append('{').append(all).append('}');
+    }
+    sb.append(' ');
+    if (value == Math.rint(value) && !Double.isInfinite(value)) {
+      sb.append((long) value);
+    } else {
+      sb.append(value);
+    }
+    sb.append('\n');
+  }
+
+  private static String renderLabels(String... labels) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < labels.length; i += 2) {
+      if (i > 0) sb.append(',');
+      sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+    }
+    return sb.toString();
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+  }
+
+  private static String escapeHelp(String help) {
+    return help.replace("\\", "\\\\").replace("\n", "\\n");
+  }
+
+  private static String millis(double seconds) {
+    return String.format("%.1fms", seconds * 1000);
+  }
+
+  private record TimerFamily(String help, Map<String, LatencyTimer> series) {}
+
+  private record Gauge(String help, DoubleSupplier value) {}
+
+  private record Counter(String help, LongSupplier value) {}
+}
@@ -1,21 +1,24 @@
 package com.donesvad.actions;
 
-import static org.apache.http.HttpStatus.SC_OK;
-
+import com.donesvad.cleanup.DeferredCleanup;
 import com.donesvad.configuration.TestConfig;
+import com.donesvad.git.LocalGitServer;
 import com.donesvad.rest.client.TeamCityClient;
 import com.donesvad.rest.client.VersionedSettingsWaitStatus;
 import com.donesvad.rest.dto.project.CreateProjectRequest;
+import com.donesvad.rest.dto.project.ProjectDto;
 import com.donesvad.rest.dto.vcs.CreateVcsRootRequest;
 import com.donesvad.rest.dto.vcs.ProjectRef;
 import com.donesvad.rest.dto.vcs.Properties;
 import com.donesvad.rest.dto.vcs.Property;
 import com.donesvad.rest.dto.vcs.VersionedSettingsConfigRequest;
+import com.donesvad.rest.endpoints.Fields;
 import com.donesvad.util.WaitPreset;
+import com.donesvad.wait.DslApplyTimelines;
 import com.donesvad.wait.VersionedSettingsWaiter;
-import io.restassured.response.Response;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -27,28 +30,43 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class ImportDslActions {
 
+  private static final int PROJECTS_PAGE_SIZE = 500;
+
   private final TeamCityClient client;
   private final VersionedSettingsWaiter waiter;
+  private final DslApplyTimelines timelines;
   private final TestConfig config;
+  private final DeferredCleanup cleanup;
+  private final LocalGitServer gitServer;
 
   /** Delete project if exists. */
   public void ensureProjectAbsent(String projectId) {
-    Response resp = client.getProjectResponse(projectId);
-    if (resp.statusCode() == SC_OK) {
-      client.deleteProject(projectId);
-    }
+    client.deleteProjectIfExists(projectId);
   }
 
-  /** Delete all projects whose id starts with the given prefix. */
+  /**
+   * Queue the project for deletion in the background; the test does not wait for it. Everything
+   * queued is deleted before the test session ends.
+   */
+  public void deleteProjectLater(String projectId) {
+    cleanup.deleteProject(projectId);
+  }
+
+  /**
+   * Queue every project whose id starts with the given prefix for deletion. The ids are collected
+   * before anything is deleted, so deletions cannot shift the pages still being read.
+   */
   public void ensureProjectsWithPrefixAbsent(String projectIdPrefix) {
-    var projects = client.getProjects();
-    if (projects != null && projects.getProject() != null) {
-      for (var p : projects.getProject()) {
-        if (p != null && p.getId() != null && p.getId().startsWith(projectIdPrefix)) {
-          client.deleteProject(p.getId());
-        }
-      }
+    List<String> matching;
+    try (Stream<ProjectDto> projects =
+        client.getProjectsPaged(PROJECTS_PAGE_SIZE, Fields.of(Fields.nested("project", "id")))) {
+      matching =
+          projects
+              .map(ProjectDto::getId)
+              .filter(id -> id != null && id.startsWith(projectIdPrefix))
+              .toList();
     }
+    matching.forEach(this::deleteProjectLater);
   }
 
   /** Create an empty project under _Root. */
@@ -73,7 +91,7 @@ public class ImportDslActions {
   public String createDslVcsRoot(String projectId, String branchRef) {
     String vcsId = "dsl_" + projectId + "_git";
     List<Property> props = new ArrayList<>();
-    props.add(new Property("url", config.getDslRepoUrl()));
+    props.add(new Property("url", gitServer.advertisedUrl()));
     props.add(new Property("branch", branchRef));
     props.add(new Property("authMethod", config.getVcsAuthMethod()));
     props.add(new Property("username", config.getVcsUsername()));
@@ -104,20 +122,19 @@ public class ImportDslActions {
             .buildSettingsMode("alwaysUseCurrent")
             .importDecision("importFromVCS")
             .build();
+    timelines.start(projectId, "versioned settings config put");
     client.putVersionedSettingsConfig(projectId, cfg);
   }
 
   /** Wait for Applied Changes status. */
   public void waitDslIsApplied(String projectId) {
     waiter.waitForVersionedSettingsStatus(
-        projectId,
-        VersionedSettingsWaitStatus.APPLIED_CHANGES,
-        WaitPreset.TIMEOUT,
-        WaitPreset.LONG_POLLING);
+        projectId, VersionedSettingsWaitStatus.APPLIED_CHANGES, WaitPreset.TIMEOUT);
   }
 
   /** Trigger manual load of versioned settings. */
   public void loadSettings(String projectId) {
+    timelines.start(projectId, "load settings");
     client.loadVersionedSettings(projectId);
     waitDslIsApplied(projectId);
   }
@@ -2,8 +2,14 @@ package com.donesvad.assertions;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.donesvad.rest.client.AuditChangeFeed;
 import com.donesvad.rest.client.TeamCityClient;
+import com.donesvad.rest.dto.audit.AuditEventDto;
 import com.donesvad.util.WaitPreset;
+import com.donesvad.wait.Poller;
+import com.donesvad.wait.PollingStrategy;
+import com.donesvad.wait.Wakeup;
+import java.time.Duration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
 import org.springframework.stereotype.Component;
@@ -15,6 +21,8 @@ import org.springframework.stereotype.Component;
 public class ImportDslAssertions {
 
   private final TeamCityClient client;
+  private final PollingStrategy polling;
+  private final AuditChangeFeed auditFeed;
 
   /** Assert only that the project exists (created) by checking its id and expected name. */
   public void assertProjectCreated(String projectId, String projectName) {
@@ -65,36 +73,23 @@ public class ImportDslAssertions {
 
   /**
    * Wait (with retries) until the build type parameters count equals expected. Polls the REST API
-   * periodically and asserts at the end if the expected value was not reached.
+   * with the shared {@link PollingStrategy}, re-checking right away when an audit event concerns
+   * the build type or its project, and asserts at the end if the expected value was not reached.
    */
   public void awaitBuildTypeParamCount(
-      String buildTypeId, int expectedCount, WaitPreset timeoutMs, WaitPreset pollIntervalMs) {
-    long deadline = System.currentTimeMillis() + timeoutMs.getValue();
-    Integer lastCount = null;
-    int attempt = 0;
-    while (System.currentTimeMillis() < deadline) {
-      attempt++;
-      var params = client.getBuildTypeParameters(buildTypeId);
-      if (params != null) {
-        lastCount = params.getCount();
-      }
-      log.info(
-          String.format(
-              "[awaitBuildTypeParamCount] buildTypeId=%s, expected=%d, attempt=%d, observed=%s",
-              buildTypeId, expectedCount, attempt, lastCount));
-      if (lastCount != null && lastCount == expectedCount) {
-        log.info(
-            String.format(
-                "[awaitBuildTypeParamCount] SUCCESS: buildTypeId=%s reached expected count=%d after %d attempts",
-                buildTypeId, expectedCount, attempt));
-        return; // reached expected
-      }
-      try {
-        Thread.sleep(pollIntervalMs.getValue());
-      } catch (InterruptedException ie) {
-        Thread.currentThread().interrupt();
-        throw new RuntimeException("Interrupted while waiting for build type parameter count", ie);
-      }
+      String buildTypeId, int expectedCount, WaitPreset timeoutMs) {
+    Wakeup wakeup = new Wakeup();
+    Integer lastCount;
+    try (AuditChangeFeed.Subscription ignored =
+        auditFeed.subscribe(e -> concernsBuildType(e, buildTypeId), e -> wakeup.signal())) {
+      lastCount =
+          Poller.await(
+              "build type parameter count",
+              polling,
+              Duration.ofMillis(timeoutMs.getValue()),
+              wakeup,
+              attempt -> pollParamCount(buildTypeId, expectedCount, attempt),
+              count -> count != null && count == expectedCount);
     }
     assertThat(lastCount)
         .as(
@@ -102,4 +97,26 @@ public class ImportDslAssertions {
             expectedCount, buildTypeId, lastCount)
         .isEqualTo(expectedCount);
   }
+
+  private Integer pollParamCount(String buildTypeId, int expectedCount, int attempt) {
+    var params = client.getBuildTypeParameters(buildTypeId);
+    Integer count = params != null ? params.getCount() : null;
+    log.info(
+        String.format(
+            "[awaitBuildTypeParamCount] buildTypeId=%s, expected=%d, attempt=%d, observed=%s",
+            buildTypeId, expectedCount, attempt, count));
+    if (count != null && count == expectedCount) {
+      log.info(
+          String.format(
+              "[awaitBuildTypeParamCount] SUCCESS: buildTypeId=%s reached expected count=%d after %d attempts",
+              buildTypeId, expectedCount, attempt));
+    }
+    return count;
+  }
+
+  /** TeamCity build type ids are prefixed with the id of their project. */
+  private static boolean concernsBuildType(AuditEventDto event, String buildTypeId) {
+    return event.relatedIds().stream()
+        .anyMatch(id -> id.equals(buildTypeId) || buildTypeId.startsWith(id + "_"));
+  }
 }
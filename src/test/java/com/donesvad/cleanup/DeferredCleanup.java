@@ -0,0 +1,163 @@
+package com.donesvad.cleanup;
+
+import com.donesvad.configuration.TestConfig;
+import com.donesvad.rest.client.TeamCityClient;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes TeamCity projects and VCS roots created by tests in the background, so cleanup does not
+ * add to each test's wall-clock time. Deletes run with bounded parallelism and are retried with
+ * exponential backoff; registering a resource that is already queued or being deleted returns the
+ * pending deletion instead of issuing another one. {@link
+ * com.donesvad.listener.DeferredCleanupListener} waits for all deletions at the end of the session.
+ */
+@CommonsLog
+@Component
+public class DeferredCleanup {
+
+  private static final Set<DeferredCleanup> ACTIVE = ConcurrentHashMap.newKeySet();
+
+  private final TeamCityClient client;
+  private final TestConfig.Cleanup settings;
+  private final ExecutorService workers;
+  private final Map<String, CompletableFuture<Void>> pending = new ConcurrentHashMap<>();
+  private final List<String> failures = new CopyOnWriteArrayList<>();
+  private final LongAdder deleted = new LongAdder();
+  private final LongAdder absent = new LongAdder();
+  private final LongAdder merged = new LongAdder();
+
+  public DeferredCleanup(TeamCityClient client, TestConfig config) {
+    this.client = client;
+    this.settings = config.getCleanup();
+    AtomicInteger threads = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            Math.max(1, settings.getParallelism()),
+            r -> {
+              Thread t = new Thread(r, "tc-cleanup-" + threads.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            });
+    ACTIVE.add(this);
+  }
+
+  /** Queues deletion of the project (with its build types and VCS roots). */
+  public CompletableFuture<Void> deleteProject(String projectId) {
+    return schedule("project " + projectId, () -> client.deleteProjectIfExists(projectId));
+  }
+
+  /** Queues deletion of a VCS root. */
+  public CompletableFuture<Void> deleteVcsRoot(String vcsRootId) {
+    return schedule("vcs root " + vcsRootId, () -> client.deleteVcsRootIfExists(vcsRootId));
+  }
+
+  private CompletableFuture<Void> schedule(String resource, BooleanSupplier delete) {
+    CompletableFuture<Void> created = new CompletableFuture<>();
+    CompletableFuture<Void> existing = pending.putIfAbsent(resource, created);
+    if (existing != null) {
+      merged.increment();
+      return existing;
+    }
+    workers.execute(() -> run(resource, delete, created));
+    return created;
+  }
+
+  private void run(String resource, BooleanSupplier delete, CompletableFuture<Void> result) {
+    long backoffMs = settings.getRetryBackoffMs();
+    for (int attempt = 1; ; attempt++) {
+      try {
+        (delete.getAsBoolean() ? deleted : absent).increment();
+        pending.remove(resource, result);
+        result.complete(null);
+        return;
+      } catch (Exception | AssertionError e) {
+        // REST Assured rethrows I/O exceptions undeclared, hence Exception
+        if (attempt >= settings.getMaxAttempts()) {
+          log.warn(
+              String.format("[Cleanup] giving up on %s after %d attempts", resource, attempt), e);
+          failures.add(resource);
+          pending.remove(resource, result);
+          result.completeExceptionally(e);
+          return;
+        }
+        log.info(
+            String.format(
+                "[Cleanup] deleting %s failed (attempt %d): %s; retrying in %d ms",
+                resource, attempt, e.getMessage(), backoffMs));
+        sleep(backoffMs);
+        backoffMs *= 2;
+      }
+    }
+  }
+
+  /**
+   * Blocks until every queued deletion has finished (including ones registered while waiting) or
+   * the configured timeout expires, then logs a summary.
+   */
+  public void awaitAll() {
+    long deadline =
+        System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(settings.getAwaitTimeoutMs());
+    while (!pending.isEmpty()) {
+      long remaining = deadline - System.nanoTime();
+      try {
+        CompletableFuture.allOf(pending.values().toArray(CompletableFuture[]::new))
+            .get(remaining, TimeUnit.NANOSECONDS);
+      } catch (ExecutionException e) {
+        // failed deletions are logged and counted by run()
+      } catch (TimeoutException e) {
+        log.warn(
+            String.format(
+                "[Cleanup] %d deletions still pending after %s: %s",
+                pending.size(),
+                Duration.ofMillis(settings.getAwaitTimeoutMs()),
+                pending.keySet()));
+        break;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+    log.info(
+        String.format(
+            "[Cleanup] deleted=%d alreadyAbsent=%d mergedRegistrations=%d failed=%s",
+            deleted.sum(), absent.sum(), merged.sum(), failures));
+  }
+
+  /** Waits for all pending deletions of every live instance; called at the end of the session. */
+  public static void awaitAllInstances() {
+    ACTIVE.forEach(DeferredCleanup::awaitAll);
+  }
+
+  @PreDestroy
+  public void close() {
+    if (ACTIVE.remove(this)) {
+      awaitAll();
+    }
+    workers.shutdownNow();
+  }
+
+  private static void sleep(long ms) {
+    try {
+      Thread.sleep(ms);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,167 @@
+package com.donesvad.cleanup;
+
+import com.donesvad.configuration.TestConfig;
+import com.donesvad.git.GitMirrorCache;
+import com.donesvad.git.GitRemote;
+import com.donesvad.git.LocalGitServer;
+import com.donesvad.git.RemoteBranches;
+import com.donesvad.util.RandomUtil;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.extern.apachecommons.CommonsLog;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes the temporary {@value #PREFIX}* branches tests push to the DSL repository. Branches are
+ * collected during the session and deleted at its end in a single push; {@link
+ * com.donesvad.listener.DeferredCleanupListener} triggers it.
+ *
+ * <p>The same push also removes branches leaked by earlier sessions, e.g. when a JVM crashed: the
+ * remote's {@value #PREFIX}* branches are listed with ls-remote and those whose last activity is
+ * older than {@code tc.git.staleBranchAgeMs} are deleted. Branch names carry their creation time
+ * ({@code tc-sync-20240131-235959-1a2b3c4d}), because a fresh branch points to an old commit of
+ * its source branch; activity is the later of that time and the tip's commit time when the local
+ * mirror has the commit. Branches with neither are left alone. The DSL remote of the tests ({@link
+ * LocalGitServer#localRemote()}) is swept even when the session created no branches.
+ */
+@CommonsLog
+@Component
+public class TempBranchCleanup {
+
+  public static final String PREFIX = "tc-sync-";
+
+  private static final Set<TempBranchCleanup> ACTIVE = ConcurrentHashMap.newKeySet();
+  private static final DateTimeFormatter STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final Pattern STAMPED = Pattern.compile(PREFIX + "(\\d{8}-\\d{6})-");
+
+  private final TestConfig.Git settings;
+  private final GitMirrorCache mirrors;
+  private final LocalGitServer gitServer;
+  private final Map<GitRemote, Set<String>> registered = new ConcurrentHashMap<>();
+  private final AtomicBoolean sweptDslRemote = new AtomicBoolean();
+
+  public TempBranchCleanup(TestConfig config, GitMirrorCache mirrors, LocalGitServer gitServer) {
+    this.settings = config.getGit();
+    this.mirrors = mirrors;
+    this.gitServer = gitServer;
+    ACTIVE.add(this);
+  }
+
+  /** A new temporary branch name (without refs/heads/) recording the current time. */
+  public static String newBranchName() {
+    return PREFIX
+        + LocalDateTime.now(ZoneOffset.UTC).format(STAMP)
+        + "-"
+        + RandomUtil.randomTcSafeSuffix();
+  }
+
+  /** Queues a branch (refs/heads/...) for deletion at the end of the session. */
+  public void deleteLater(GitRemote remote, String branchRef) {
+    registered.computeIfAbsent(remote, r -> ConcurrentHashMap.newKeySet()).add(branchRef);
+  }
+
+  /**
+   * Deletes the queued branches of every remote, together with its stale branches if sweeping is
+   * enabled, in one push per remote. Failures are logged, not thrown.
+   */
+  public void deleteAll() {
+    Map<GitRemote, Set<String>> branches = new HashMap<>();
+    for (GitRemote remote : List.copyOf(registered.keySet())) {
+      branches.put(remote, registered.remove(remote));
+    }
+    if (settings.isSweepStaleBranches() && sweptDslRemote.compareAndSet(false, true)) {
+      try {
+        branches.putIfAbsent(gitServer.localRemote(), Set.of());
+      } catch (IllegalArgumentException e) {
+        log.warn(
+            String.format("[BranchCleanup] not sweeping the DSL repository: %s", e.getMessage()));
+      }
+    }
+    branches.forEach(this::delete);
+  }
+
+  private void delete(GitRemote remote, Set<String> session) {
+    Set<String> refs = new TreeSet<>(session);
+    int stale = 0;
+    if (settings.isSweepStaleBranches()) {
+      try {
+        List<String> found = staleBranches(remote);
+        found.removeAll(session);
+        stale = found.size();
+        refs.addAll(found);
+      } catch (Exception e) {
+        log.warn(String.format("[BranchCleanup] listing branches of %s failed", remote.url()), e);
+      }
+    }
+    try {
+      List<String> deleted = RemoteBranches.delete(remote, refs);
+      log.info(
+          String.format(
+              "[BranchCleanup] deleted %d of %d branches (%d from this session, %d stale) in %s",
+              deleted.size(), refs.size(), session.size(), stale, remote.url()));
+    } catch (Exception e) {
+      log.warn(String.format("[BranchCleanup] deleting %s failed", refs), e);
+    }
+  }
+
+  /** {@value #PREFIX}* branches of the remote inactive for longer than the configured age. */
+  public List<String> staleBranches(GitRemote remote) throws GitAPIException {
+    Instant cutoff = Instant.now().minus(Duration.ofMillis(settings.getStaleBranchAgeMs()));
+    List<String> stale = new ArrayList<>();
+    for (Map.Entry<String, ObjectId> branch : RemoteBranches.list(remote, PREFIX).entrySet()) {
+      Instant lastActivity =
+          Stream.of(createdAt(branch.getKey()), mirrors.commitTime(remote, branch.getValue()))
+              .flatMap(Optional::stream)
+              .max(Comparator.naturalOrder())
+              .orElse(null);
+      if (lastActivity != null && lastActivity.isBefore(cutoff)) {
+        stale.add(branch.getKey());
+      }
+    }
+    return stale;
+  }
+
+  private static Optional<Instant> createdAt(String branchRef) {
+    Matcher m = STAMPED.matcher(branchRef);
+    if (!m.find()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(LocalDateTime.parse(m.group(1), STAMP).toInstant(ZoneOffset.UTC));
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** Deletes the branches of every live instance; called at the end of the session. */
+  public static void deleteAllInstances() {
+    ACTIVE.forEach(TempBranchCleanup::deleteAll);
+  }
+
+  @PreDestroy
+  public void close() {
+    if (ACTIVE.remove(this)) {
+      deleteAll();
+    }
+  }
+}
@@ -1,19 +1,119 @@
 package com.donesvad.configuration;
 
 import com.donesvad.rest.client.ApiClient;
+import com.donesvad.rest.client.ApiClientOptions;
+import com.donesvad.rest.client.ApiResponseCache;
+import com.donesvad.rest.client.AsyncApiClient;
+import com.donesvad.rest.client.AsyncTeamCityClient;
+import com.donesvad.rest.client.AuditChangeFeed;
+import com.donesvad.rest.client.AuditFeedSettings;
+import com.donesvad.rest.client.CompressionSettings;
+import com.donesvad.rest.client.ConnectionPoolSettings;
+import com.donesvad.rest.client.LimiterSettings;
+import com.donesvad.rest.client.RetrySettings;
 import com.donesvad.rest.client.TeamCityClient;
+import com.donesvad.wait.ExponentialBackoffPolling;
+import com.donesvad.wait.PollingStrategy;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class Beans {
-  @Bean
+  @Bean(destroyMethod = "close")
   public ApiClient apiClient(TestConfig cfg) {
-    return new ApiClient(cfg.getUsername(), cfg.getPassword());
+    TestConfig.Http http = cfg.getHttp();
+    TestConfig.Limiter limiter = http.getLimiter();
+    TestConfig.Retry retry = http.getRetry();
+    return new ApiClient(
+        cfg.getUsername(),
+        cfg.getPassword(),
+        ApiClientOptions.builder()
+            .pool(
+                ConnectionPoolSettings.builder()
+                    .maxTotal(http.getMaxConnections())
+                    .maxPerRoute(http.getMaxConnectionsPerRoute())
+                    .keepAliveMs(http.getKeepAliveMs())
+                    .idleEvictionMs(http.getIdleEvictionMs())
+                    .build())
+            .coalesceGets(http.isCoalesceGets())
+            .limiter(
+                LimiterSettings.builder()
+                    .enabled(limiter.isEnabled())
+                    .initialLimit(limiter.getInitialLimit())
+                    .minLimit(limiter.getMinLimit())
+                    .maxLimit(limiter.getMaxLimit())
+                    .latencyThresholdMs(limiter.getLatencyThresholdMs())
+                    .backoffRatio(limiter.getBackoffRatio())
+                    .build())
+            .retry(
+                RetrySettings.builder()
+                    .enabled(retry.isEnabled())
+                    .maxAttempts(retry.getMaxAttempts())
+                    .initialBackoffMs(retry.getInitialBackoffMs())
+                    .maxBackoffMs(retry.getMaxBackoffMs())
+                    .budgetRatio(retry.getBudgetRatio())
+                    .budgetReserve(retry.getBudgetReserve())
+                    .build())
+            .compression(compression(http.getCompression()))
+            .build());
   }
 
   @Bean
-  public TeamCityClient teamCityClient(ApiClient api) {
-    return new TeamCityClient(api);
+  public TeamCityClient teamCityClient(ApiClient api, ObjectMapper objectMapper, TestConfig cfg) {
+    TestConfig.Cache cache = cfg.getHttp().getCache();
+    return new TeamCityClient(
+        api,
+        objectMapper,
+        cache.isEnabled()
+            ? new ApiResponseCache(cache.getMaxEntries(), cache.getMaxBytes(), cache.getMaxAgeMs())
+            : ApiResponseCache.disabled());
+  }
+
+  @Bean(destroyMethod = "close")
+  public AsyncApiClient asyncApiClient(TestConfig cfg, ObjectMapper objectMapper) {
+    return new AsyncApiClient(
+        cfg.getBaseUrl(),
+        cfg.getUsername(),
+        cfg.getPassword(),
+        objectMapper,
+        compression(cfg.getHttp().getCompression()));
+  }
+
+  @Bean
+  public AsyncTeamCityClient asyncTeamCityClient(AsyncApiClient api) {
+    return new AsyncTeamCityClient(api);
+  }
+
+  @Bean(destroyMethod = "close")
+  public AuditChangeFeed auditChangeFeed(TeamCityClient client, TestConfig cfg) {
+    TestConfig.Audit audit = cfg.getAudit();
+    return new AuditChangeFeed(
+        client,
+        AuditFeedSettings.builder()
+            .enabled(audit.isEnabled())
+            .pollIntervalMs(audit.getPollIntervalMs())
+            .pageSize(audit.getPageSize())
+            .maxPages(audit.getMaxPages())
+            .build());
+  }
+
+  @Bean
+  public PollingStrategy pollingStrategy(TestConfig cfg) {
+    TestConfig.Polling polling = cfg.getPolling();
+    return ExponentialBackoffPolling.builder()
+        .initialIntervalMs(polling.getInitialIntervalMs())
+        .maxIntervalMs(polling.getMaxIntervalMs())
+        .multiplier(polling.getMultiplier())
+        .jitter(polling.getJitter())
+        .build();
+  }
+
+  private static CompressionSettings compression(TestConfig.Compression compression) {
+    return CompressionSettings.builder()
+        .acceptCompressed(compression.isAcceptCompressed())
+        .compressRequests(compression.isCompressRequests())
+        .minRequestBytes(compression.getMinRequestBytes())
+        .build();
   }
 }
@@ -1,7 +1,9 @@
 package com.donesvad.configuration;
 
+import com.donesvad.git.FetchMode;
 import io.restassured.RestAssured;
 import jakarta.annotation.PostConstruct;
+import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -24,8 +26,137 @@ public class TestConfig {
   private String vcsUsername; // e.g., your VCS username (for GitHub can be your username)
   private String vcsToken; // the personal access token (will be sent as secure:password)
 
+  private Http http = new Http();
+  private Cleanup cleanup = new Cleanup();
+  private Polling polling = new Polling();
+  private Audit audit = new Audit();
+  private Git git = new Git();
+  private Pool pool = new Pool();
+
   @PostConstruct
   public void initRestAssured() {
     RestAssured.baseURI = baseUrl;
   }
+
+  /** Transport settings of the shared REST client (tc.http.*). */
+  @Getter
+  @Setter
+  public static class Http {
+    private int maxConnections = 64;
+    private int maxConnectionsPerRoute = 32;
+    private long keepAliveMs = 30_000L;
+    private long idleEvictionMs = 10_000L;
+    private boolean coalesceGets;
+    private Limiter limiter = new Limiter();
+    private Cache cache = new Cache();
+    private Compression compression = new Compression();
+    private Retry retry = new Retry();
+  }
+
+  /** Adaptive concurrency limit of requests sent to TeamCity (tc.http.limiter.*). */
+  @Getter
+  @Setter
+  public static class Limiter {
+    private boolean enabled = true;
+    private int initialLimit = 16;
+    private int minLimit = 2;
+    private int maxLimit = 64;
+    private long latencyThresholdMs = 5_000L;
+    private double backoffRatio = 0.9;
+  }
+
+  /** Opt-in GET response cache of TeamCityClient (tc.http.cache.*). */
+  @Getter
+  @Setter
+  public static class Cache {
+    private boolean enabled;
+    private int maxEntries = 512;
+    private long maxBytes = 16L * 1024 * 1024;
+    private long maxAgeMs = 1_000L;
+  }
+
+  /** Retries of failed REST calls (tc.http.retry.*). */
+  @Getter
+  @Setter
+  public static class Retry {
+    private boolean enabled = true;
+    private int maxAttempts = 3;
+    private long initialBackoffMs = 200L;
+    private long maxBackoffMs = 5_000L;
+    private double budgetRatio = 0.2;
+    private int budgetReserve = 10;
+  }
+
+  /** HTTP compression of REST requests and responses (tc.http.compression.*). */
+  @Getter
+  @Setter
+  public static class Compression {
+    private boolean acceptCompressed = true;
+    private boolean compressRequests;
+    private int minRequestBytes = 16 * 1024;
+  }
+
+  /** Background deletion of projects and VCS roots created by tests (tc.cleanup.*). */
+  @Getter
+  @Setter
+  public static class Cleanup {
+    private int parallelism = 4;
+    private int maxAttempts = 3;
+    private long retryBackoffMs = 1_000L;
+    private long awaitTimeoutMs = 300_000L;
+  }
+
+  /** Interval between polls of waiters such as the versioned settings status (tc.polling.*). */
+  @Getter
+  @Setter
+  public static class Polling {
+    private long initialIntervalMs = 250L;
+    private long maxIntervalMs = 2_000L;
+    private double multiplier = 1.5;
+    private double jitter = 0.2;
+  }
+
+  /** Audit log change feed that wakes waiters up early (tc.audit.*). */
+  @Getter
+  @Setter
+  public static class Audit {
+    private boolean enabled = true;
+    private long pollIntervalMs = 1_000L;
+    private int pageSize = 100;
+    private int maxPages = 10;
+  }
+
+  /** Warm pool of projects with the DSL already imported, leased to tests (tc.pool.*). */
+  @Getter
+  @Setter
+  public static class Pool {
+    private int size = 1; // projects kept ahead of the leases; 0 = import on every lease
+    private int parallelism = 2;
+    private long leaseTimeoutMs = 180_000L;
+  }
+
+  /** Git mirrors and temporary branches of dslRepoUrl used by the VCS sync tests (tc.git.*). */
+  @Getter
+  @Setter
+  public static class Git {
+    private String mirrorDir = "";
+    private FetchMode fetchMode = FetchMode.SHALLOW;
+    private int depth = 1;
+    private List<String> refSpecs = List.of(); // fetched in REFSPEC mode
+    private boolean sweepStaleBranches = true;
+    private long staleBranchAgeMs = 6 * 60 * 60 * 1_000L;
+    private List<String> plainHttpHosts = List.of("localhost", "127.0.0.1");
+    private GitServer server = new GitServer();
+  }
+
+  /** Embedded Git server serving a seeded copy of the DSL repository (tc.git.server.*). */
+  @Getter
+  @Setter
+  public static class GitServer {
+    private boolean enabled;
+    private String bindAddress = "0.0.0.0";
+    private int port; // 0 = any free port
+    private String advertisedHost = "host.docker.internal";
+    private String seedDir = "";
+  }
 }
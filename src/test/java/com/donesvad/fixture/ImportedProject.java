@@ -0,0 +1,9 @@
+package com.donesvad.fixture;
+
+/**
+ * A TeamCity project whose versioned settings have been applied from the DSL repository: the DSL
+ * VCS root {@code vcsRootId} follows {@code branchRef}, a temporary branch of its own, so the test
+ * leasing it can push changes without affecting other projects.
+ */
+public record ImportedProject(
+    String projectId, String projectName, String vcsRootId, String branchRef) {}
@@ -0,0 +1,281 @@
+package com.donesvad.fixture;
+
+import static com.donesvad.util.ProjectUtil.generateUniqueProjectId;
+
+import com.donesvad.actions.ImportDslActions;
+import com.donesvad.actions.VcsSyncActions;
+import com.donesvad.configuration.TestConfig;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.apachecommons.CommonsLog;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warm pool of {@link ImportedProject}s for tests that need a project with the DSL already applied
+ * but do not test the import itself. Once the Spring context is refreshed, at the start of the
+ * session, the pool provisions {@code tc.pool.size} projects in the background (temporary branch,
+ * project, VCS root, versioned settings, wait for the DSL to be applied), {@code
+ * tc.pool.parallelism} at a time, and every {@link #lease()} starts another one, so the DSL
+ * compilation for a lease runs while the tests before it do and a lease only waits if provisioning
+ * has not caught up.
+ *
+ * <p>Each lease hands out the oldest project, waiting for it if it is not ready yet. A leased
+ * project belongs to the test, which deletes it like any project it created. If the project a lease
+ * waits for could not be provisioned, the lease imports one in the test's thread instead; with
+ * {@code tc.pool.size: 0} every lease does. Lease wait times are tracked and logged with the other
+ * counters at the end of the session, when {@link com.donesvad.listener.DeferredCleanupListener}
+ * stops provisioning and queues the projects nobody leased for deletion once their provisioning has
+ * finished.
+ */
+@CommonsLog
+@Component
+public class ProjectPool {
+
+  private static final Set<ProjectPool> ACTIVE = ConcurrentHashMap.newKeySet();
+
+  private final ImportDslActions actions;
+  private final VcsSyncActions syncActions;
+  private final TestConfig config;
+  private final TestConfig.Pool settings;
+  private final ExecutorService workers;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Deque<Slot> slots = new ArrayDeque<>();
+  private final LongAdder leases = new LongAdder();
+  private final LongAdder provisioned = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder fallbacks = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+  private boolean started;
+  private boolean closed;
+
+  public ProjectPool(ImportDslActions actions, VcsSyncActions syncActions, TestConfig config) {
+    this.actions = actions;
+    this.syncActions = syncActions;
+    this.config = config;
+    this.settings = config.getPool();
+    AtomicInteger threads = new AtomicInteger();
+    this.workers =
+        Executors.newFixedThreadPool(
+            Math.max(1, settings.getParallelism()),
+            r -> {
+              Thread t = new Thread(r, "tc-project-pool-" + threads.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            });
+    ACTIVE.add(this);
+  }
+
+  /** Starts provisioning the pool once every bean the provisioning uses is ready. */
+  @EventListener(ContextRefreshedEvent.class)
+  public void start() {
+    lock.lock();
+    try {
+      if (!started && !closed) {
+        started = true;
+        refill();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Takes the oldest project of the pool, waiting up to {@code tc.pool.leaseTimeoutMs} for it to be
+   * provisioned, and starts provisioning the next one.
+   */
+  public ImportedProject lease() {
+    long startedNanos = System.nanoTime();
+    Slot slot;
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Project pool is closed");
+      }
+      started = true;
+      slot = slots.pollFirst();
+      refill();
+    } finally {
+      lock.unlock();
+    }
+    ImportedProject project = slot == null ? provisionNew() : await(slot);
+    long waited = System.nanoTime() - startedNanos;
+    leases.increment();
+    waitNanos.add(waited);
+    maxWaitNanos.accumulate(waited);
+    log.info(
+        String.format(
+            "[ProjectPool] leased %s after %d ms",
+            project.projectId(), TimeUnit.NANOSECONDS.toMillis(waited)));
+    return project;
+  }
+
+  private ImportedProject await(Slot slot) {
+    try {
+      return slot.project().get(settings.getLeaseTimeoutMs(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException e) {
+      fallbacks.increment();
+      log.warn(
+          String.format(
+              "[ProjectPool] provisioning %s failed (%s), importing a project for the lease",
+              slot.projectId(), e.getCause()));
+      return provisionNew();
+    } catch (TimeoutException e) {
+      deleteWhenDone(slot);
+      throw new IllegalStateException(
+          String.format(
+              "Pooled project %s not ready after %s",
+              slot.projectId(), Duration.ofMillis(settings.getLeaseTimeoutMs())),
+          e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      deleteWhenDone(slot);
+      throw new IllegalStateException("Interrupted while leasing a pooled project", e);
+    }
+  }
+
+  /** A slot nobody will lease: its project is deleted once provisioning has succeeded. */
+  private void deleteWhenDone(Slot slot) {
+    slot.project().thenAccept(project -> actions.deleteProjectLater(project.projectId()));
+  }
+
+  /** Tops the queue up to {@code tc.pool.size}; call with the lock held. */
+  private void refill() {
+    while (slots.size() < settings.getSize()) {
+      provisionLater();
+    }
+  }
+
+  /** Starts provisioning a project at the end of the queue; call with the lock held. */
+  private void provisionLater() {
+    String projectId = generateUniqueProjectId(config.getProjectId());
+    slots.addLast(
+        new Slot(projectId, CompletableFuture.supplyAsync(() -> provision(projectId), workers)));
+  }
+
+  private ImportedProject provisionNew() {
+    return provision(generateUniqueProjectId(config.getProjectId()));
+  }
+
+  private ImportedProject provision(String projectId) {
+    long startedNanos = System.nanoTime();
+    String projectName = projectId + " Name";
+    try {
+      String branchRef = syncActions.createAndPushTempBranchFromSource();
+      actions.createProjectUnderRoot(projectId, projectName);
+      String vcsRootId = actions.createDslVcsRoot(projectId, branchRef);
+      actions.enableVersionedSettings(projectId, vcsRootId);
+      actions.waitDslIsApplied(projectId);
+      provisioned.increment();
+      log.info(
+          String.format(
+              "[ProjectPool] %s imported in %d ms",
+              projectId, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedNanos)));
+      return new ImportedProject(projectId, projectName, vcsRootId, branchRef);
+    } catch (IOException e) {
+      throw provisioningFailed(projectId, new UncheckedIOException(e));
+    } catch (GitAPIException e) {
+      throw provisioningFailed(projectId, new IllegalStateException(e));
+    } catch (RuntimeException e) {
+      // REST Assured rethrows I/O exceptions undeclared
+      throw provisioningFailed(projectId, e);
+    } catch (AssertionError e) {
+      // a wait that timed out
+      throw provisioningFailed(projectId, e);
+    }
+  }
+
+  private <E extends Throwable> E provisioningFailed(String projectId, E e) {
+    failed.increment();
+    actions.deleteProjectLater(projectId);
+    return e;
+  }
+
+  public PoolStats stats() {
+    return new PoolStats(
+        leases.sum(),
+        provisioned.sum(),
+        failed.sum(),
+        fallbacks.sum(),
+        TimeUnit.NANOSECONDS.toMillis(waitNanos.sum()),
+        TimeUnit.NANOSECONDS.toMillis(maxWaitNanos.get()));
+  }
+
+  /**
+   * Stops provisioning and queues the projects nobody leased for deletion with the other deferred
+   * deletions; called at the end of the session, before those are awaited.
+   */
+  public static void closeAllInstances() {
+    ACTIVE.forEach(ProjectPool::close);
+  }
+
+  @PreDestroy
+  public void close() {
+    List<Slot> unused;
+    lock.lock();
+    try {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      unused = new ArrayList<>(slots);
+      slots.clear();
+    } finally {
+      lock.unlock();
+    }
+    ACTIVE.remove(this);
+    // slots still provisioning are deleted once they finish, failed ones already are
+    unused.forEach(this::deleteWhenDone);
+    // interrupts running waits; queued provisioning never starts, so it leaves nothing to delete
+    workers.shutdownNow();
+    try {
+      workers.awaitTermination(30, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    PoolStats stats = stats();
+    log.info(
+        String.format(
+            "[ProjectPool] leases=%d avgWaitMs=%d maxWaitMs=%d provisioned=%d failed=%d"
+                + " fallbacks=%d unused=%d",
+            stats.leases(),
+            stats.leases() == 0 ? 0 : stats.totalWaitMs() / stats.leases(),
+            stats.maxWaitMs(),
+            stats.provisioned(),
+            stats.failed(),
+            stats.fallbacks(),
+            unused.size()));
+  }
+
+  /** Pool counters; wait times are those of {@link #lease()} calls. */
+  public record PoolStats(
+      long leases,
+      long provisioned,
+      long failed,
+      long fallbacks,
+      long totalWaitMs,
+      long maxWaitMs) {}
+
+  private record Slot(String projectId, CompletableFuture<ImportedProject> project) {}
+}
@@ -0,0 +1,38 @@
+package com.donesvad.git;
+
+import java.util.List;
+
+/**
+ * How much of the remote a Git operation fetches into the mirror before it works on a branch
+ * (tc.git.fetchMode). Each operation names the single branch it needs, so the branch modes never
+ * transfer other branches, e.g. temporary branches leaked by earlier runs. {@link #REFSPEC} instead
+ * fetches the same configured refs for every operation, so concurrent operations on different
+ * branches share one fetch.
+ */
+public enum FetchMode {
+  /** All branches with full history, as a plain clone would. */
+  FULL,
+  /** Only the branch the operation works on, with full history. */
+  SINGLE_BRANCH,
+  /** Only the last tc.git.depth commits of the branch the operation works on. */
+  SHALLOW,
+  /**
+   * Only the refs matched by tc.git.refSpecs, with full history, whatever branch the operation
+   * works on. The refspecs must cover that branch: the source branch and the temporary branches.
+   */
+  REFSPEC;
+
+  public FetchSpec specFor(String branchRef, int depth, List<String> refSpecs) {
+    return switch (this) {
+      case FULL -> FetchSpec.allBranches();
+      case SINGLE_BRANCH -> FetchSpec.branch(branchRef);
+      case SHALLOW -> FetchSpec.branch(branchRef).shallow(Math.max(1, depth));
+      case REFSPEC -> {
+        if (refSpecs == null || refSpecs.isEmpty()) {
+          throw new IllegalStateException("tc.git.fetchMode REFSPEC needs tc.git.refSpecs");
+        }
+        yield new FetchSpec(refSpecs, 0);
+      }
+    };
+  }
+}
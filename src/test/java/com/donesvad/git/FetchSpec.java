@@ -0,0 +1,35 @@
+package com.donesvad.git;
+
+import java.util.List;
+import org.eclipse.jgit.lib.Constants;
+
+/**
+ * What one fetch into a mirror transfers: the refs matched by {@code refSpecs} and, if {@code
+ * depth} is positive, only that many commits of their history (a shallow fetch).
+ */
+public record FetchSpec(List<String> refSpecs, int depth) {
+
+  public FetchSpec {
+    refSpecs = List.copyOf(refSpecs);
+  }
+
+  /** Every branch with its full history, i.e. what a plain clone transfers. */
+  public static FetchSpec allBranches() {
+    return refSpecs("+" + Constants.R_HEADS + "*:" + Constants.R_HEADS + "*");
+  }
+
+  /** One branch (refs/heads/...) with its full history. */
+  public static FetchSpec branch(String branchRef) {
+    return refSpecs("+" + branchRef + ":" + branchRef);
+  }
+
+  /** Refs matched by the given refspecs (source and destination alike in a mirror). */
+  public static FetchSpec refSpecs(String... refSpecs) {
+    return new FetchSpec(List.of(refSpecs), 0);
+  }
+
+  /** The same refs, limited to the last {@code depth} commits; 0 means full history. */
+  public FetchSpec shallow(int depth) {
+    return new FetchSpec(refSpecs, Math.max(0, depth));
+  }
+}
@@ -0,0 +1,378 @@
+package com.donesvad.git;
+
+import com.donesvad.configuration.TestConfig;
+import com.donesvad.util.FileUtil;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.apachecommons.CommonsLog;
+import org.eclipse.jgit.api.FetchCommand;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.StoredConfig;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+import org.eclipse.jgit.transport.Transport;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-JVM cache of bare mirrors of the Git remotes tests push to. Every operation fetches the
+ * branch it works on into the mirror, and only as much of it as {@code tc.git.fetchMode} asks for
+ * (see {@link FetchMode}); objects the mirror already has are not transferred again. Fetches run
+ * one at a time per remote, and callers that queued up behind a running fetch of the same refs
+ * share the next one instead of each sending their own. Tests work in {@link #localClone local
+ * clones} that borrow the mirror's objects through {@code objects/info/alternates}, so creating one
+ * copies no objects; {@link #createBranch} and {@link #pushPatch} go further and push without any
+ * clone or working tree.
+ *
+ * <p>Mirrors live in a temporary directory deleted when the JVM exits, unless {@code
+ * tc.git.mirrorDir} names a directory to keep them in between runs. A lock file per mirror
+ * serializes fetches of forked JVMs sharing that directory.
+ */
+@CommonsLog
+@Component
+public class GitMirrorCache {
+
+  private static final String ORIGIN = "origin";
+  private static final String REMOTE_HEADS = Constants.R_REMOTES + ORIGIN + "/";
+  private static final Map<Path, Mirror> MIRRORS = new ConcurrentHashMap<>();
+  private static final LongAdder MIRRORS_CREATED = new LongAdder();
+  private static final LongAdder FETCHES = new LongAdder();
+  private static final LongAdder COALESCED_FETCHES = new LongAdder();
+  private static final LongAdder LOCAL_CLONES = new LongAdder();
+  // set by TempRoot once its directory exists
+  private static volatile boolean tempRootCreated;
+
+  static {
+    Runtime.getRuntime()
+        .addShutdownHook(new Thread(GitMirrorCache::closeAll, "tc-git-mirror-cleanup"));
+  }
+
+  private final Path root;
+  private final FetchMode fetchMode;
+  private final int depth;
+  private final List<String> refSpecs;
+
+  public GitMirrorCache(TestConfig config) {
+    TestConfig.Git git = config.getGit();
+    String dir = git.getMirrorDir();
+    this.root = dir == null || dir.isBlank() ? TempRoot.DIR : Path.of(dir);
+    this.fetchMode = git.getFetchMode();
+    this.depth = git.getDepth();
+    this.refSpecs = git.getRefSpecs();
+  }
+
+  /**
+   * Creates a non-bare repository in {@code dir} whose {@code origin} is the remote. Its
+   * remote-tracking branches are those of the mirror after a fetch of {@code branchRef} (as much of
+   * it as the fetch mode transfers) made after this call started. Nothing is checked out.
+   */
+  public Git localClone(GitRemote remote, String branchRef, Path dir)
+      throws IOException, GitAPIException {
+    Mirror mirror = mirror(remote);
+    Snapshot snapshot = mirror.sync(fetchMode.specFor(branchRef, depth, refSpecs), System.nanoTime());
+    Git.init().setDirectory(dir.toFile()).call().close();
+    Path info = dir.resolve(Constants.DOT_GIT).resolve("objects").resolve("info");
+    Files.createDirectories(info);
+    Files.writeString(
+        info.resolve("alternates"),
+        mirror.dir.resolve("objects").toAbsolutePath() + "\n",
+        StandardCharsets.UTF_8);
+    // reopen so the object database picks up the alternates
+    Git git = Git.open(dir.toFile());
+    Repository repo = git.getRepository();
+    StoredConfig cfg = repo.getConfig();
+    cfg.setString("remote", ORIGIN, "url", remote.url());
+    cfg.setString("remote", ORIGIN, "fetch", "+" + Constants.R_HEADS + "*:" + REMOTE_HEADS + "*");
+    cfg.save();
+    // a shallow mirror makes a shallow clone: walks must stop where the mirror's history does
+    repo.getObjectDatabase().setShallowCommits(snapshot.shallow());
+    for (Map.Entry<String, ObjectId> head : snapshot.heads().entrySet()) {
+      RefUpdate update = repo.updateRef(REMOTE_HEADS + head.getKey());
+      update.setNewObjectId(head.getValue());
+      update.forceUpdate();
+    }
+    LOCAL_CLONES.increment();
+    return git;
+  }
+
+  /**
+   * Creates {@code newRef} on the remote at the remote's current tip of {@code sourceRef}, by
+   * pushing that commit, which the remote already has, to the new ref; no clone or working tree is
+   * involved. The push only succeeds if {@code newRef} does not exist yet. Returns the commit.
+   */
+  public ObjectId createBranch(GitRemote remote, String sourceRef, String newRef)
+      throws IOException, GitAPIException {
+    Mirror mirror = mirror(remote);
+    ObjectId tip = tip(mirror, remote, sourceRef);
+    Repository repo = mirror.repository();
+    push(
+        repo,
+        remote,
+        new RemoteRefUpdate(repo, (String) null, tip, newRef, false, null, ObjectId.zeroId()),
+        "Creating " + newRef);
+    log.info(
+        String.format(
+            "[GitMirror] created %s from %s at %s", newRef, sourceRef, tip.abbreviate(8).name()));
+    return tip;
+  }
+
+  /**
+   * Commits {@code patch} on top of the remote's current tip of {@code branchRef} and pushes it,
+   * without a working tree: the blobs, trees and commit are written straight into the mirror (see
+   * {@link InMemoryCommitBuilder}). The push only succeeds if the branch still points to the commit
+   * the patch was based on. Returns the new commit.
+   */
+  public ObjectId pushPatch(GitRemote remote, String branchRef, PatchSet patch, String message)
+      throws IOException, GitAPIException {
+    Mirror mirror = mirror(remote);
+    ObjectId tip = tip(mirror, remote, branchRef);
+    Repository repo = mirror.repository();
+    ObjectId commit = InMemoryCommitBuilder.commit(repo, tip, patch, message);
+    push(
+        repo,
+        remote,
+        new RemoteRefUpdate(repo, (String) null, commit, branchRef, false, null, tip),
+        "Pushing " + patch + " to " + branchRef);
+    log.info(
+        String.format(
+            "[GitMirror] pushed %s to %s as %s", patch, branchRef, commit.abbreviate(8).name()));
+    return commit;
+  }
+
+  /** The remote's tip of {@code branchRef} after the mirror fetched it. */
+  private ObjectId tip(Mirror mirror, GitRemote remote, String branchRef)
+      throws IOException, GitAPIException {
+    ObjectId tip =
+        mirror
+            .sync(fetchMode.specFor(branchRef, depth, refSpecs), System.nanoTime())
+            .heads()
+            .get(Repository.shortenRefName(branchRef));
+    if (tip == null) {
+      throw new IllegalArgumentException(
+          String.format("Branch %s not found in %s", branchRef, remote.url()));
+    }
+    return tip;
+  }
+
+  /**
+   * Pushes a single ref update from the mirror. There is no local tracking ref: the mirror picks
+   * the new tip up with its next fetch.
+   */
+  private static void push(Repository repo, GitRemote remote, RemoteRefUpdate update, String what)
+      throws IOException {
+    try (Transport transport = remote.prepare(Transport.open(repo, ORIGIN))) {
+      transport.push(NullProgressMonitor.INSTANCE, List.of(update));
+    } catch (URISyntaxException e) {
+      throw new IllegalArgumentException("Invalid remote URL: " + remote.url(), e);
+    }
+    if (update.getStatus() != RemoteRefUpdate.Status.OK) {
+      throw new IllegalStateException(
+          String.format("%s was rejected: %s %s", what, update.getStatus(), update.getMessage()));
+    }
+  }
+
+  public MirrorStats stats() {
+    return new MirrorStats(
+        MIRRORS_CREATED.sum(), FETCHES.sum(), COALESCED_FETCHES.sum(), LOCAL_CLONES.sum());
+  }
+
+  @PreDestroy
+  public void logStats() {
+    MirrorStats stats = stats();
+    log.info(
+        String.format(
+            "[GitMirror] mirrorsCreated=%d fetches=%d coalescedFetches=%d localClones=%d",
+            stats.mirrorsCreated(),
+            stats.fetches(),
+            stats.coalescedFetches(),
+            stats.localClones()));
+  }
+
+  /**
+   * Committer time of a commit if the remote's mirror is open in this JVM and contains it; never
+   * clones or fetches.
+   */
+  public Optional<Instant> commitTime(GitRemote remote, ObjectId commit) {
+    Mirror mirror = MIRRORS.get(mirrorDir(remote));
+    Repository repo = mirror != null ? mirror.repository() : null;
+    if (repo == null) {
+      return Optional.empty();
+    }
+    try (RevWalk walk = new RevWalk(repo)) {
+      return Optional.of(Instant.ofEpochSecond(walk.parseCommit(commit).getCommitTime()));
+    } catch (IOException e) {
+      // missing (not fetched yet) or not a commit
+      return Optional.empty();
+    }
+  }
+
+  private Mirror mirror(GitRemote remote) {
+    return MIRRORS.computeIfAbsent(mirrorDir(remote), d -> new Mirror(remote, d));
+  }
+
+  private Path mirrorDir(GitRemote remote) {
+    byte[] hash =
+        Constants.newMessageDigest().digest(remote.url().getBytes(StandardCharsets.UTF_8));
+    return root.resolve(HexFormat.of().formatHex(hash, 0, 8) + ".git");
+  }
+
+  private static void closeAll() {
+    MIRRORS.values().forEach(Mirror::close);
+    // TempRoot.DIR is only read once it exists: reading it first would create it
+    if (tempRootCreated) {
+      try {
+        FileUtil.deleteRecursively(TempRoot.DIR);
+      } catch (IOException ignored) {
+        // the JVM is exiting; the OS cleans up temp directories eventually
+      }
+    }
+  }
+
+  /** Branches of a mirror (short name to commit) and its shallow commits after a fetch. */
+  private record Snapshot(Map<String, ObjectId> heads, Set<ObjectId> shallow) {}
+
+  /** Mirror and local clone counters since the JVM started. */
+  public record MirrorStats(
+      long mirrorsCreated, long fetches, long coalescedFetches, long localClones) {}
+
+  private static final class TempRoot {
+    private static final Path DIR = create();
+
+    private static Path create() {
+      try {
+        Path dir = Files.createTempDirectory("tc-git-mirrors-");
+        tempRootCreated = true;
+        return dir;
+      } catch (IOException e) {
+        throw new IllegalStateException("Cannot create the Git mirror directory", e);
+      }
+    }
+  }
+
+  private static final class Mirror {
+    private final GitRemote remote;
+    private final Path dir;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<FetchSpec, Long> lastFetchStartedNanos = new HashMap<>();
+    // written with the lock held, read without it by repository()
+    private volatile Git git;
+
+    private Mirror(GitRemote remote, Path dir) {
+      this.remote = remote;
+      this.dir = dir;
+    }
+
+    /**
+     * Fetches {@code spec} unless a fetch of the same spec started after {@code requestedAtNanos}
+     * already did, and returns the mirror's branches.
+     */
+    private Snapshot sync(FetchSpec spec, long requestedAtNanos)
+        throws IOException, GitAPIException {
+      lock.lock();
+      try (FileChannel channel = lockChannel();
+          FileLock ignored = channel.lock()) {
+        Long lastStarted = lastFetchStartedNanos.get(spec);
+        if (git != null && lastStarted != null && lastStarted - requestedAtNanos >= 0) {
+          COALESCED_FETCHES.increment();
+        } else {
+          lastFetchStartedNanos.put(spec, System.nanoTime());
+          fetch(spec);
+        }
+        Map<String, ObjectId> heads = new LinkedHashMap<>();
+        for (Ref ref : git.getRepository().getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+          heads.put(Repository.shortenRefName(ref.getName()), ref.getObjectId());
+        }
+        return new Snapshot(heads, git.getRepository().getObjectDatabase().getShallowCommits());
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** Call with the lock held. */
+    private void fetch(FetchSpec spec) throws IOException, GitAPIException {
+      open();
+      FetchCommand fetch =
+          remote
+              .configure(git.fetch())
+              .setRemote(ORIGIN)
+              .setRefSpecs(spec.refSpecs().stream().map(RefSpec::new).toList())
+              .setRemoveDeletedRefs(true);
+      if (spec.depth() > 0) {
+        fetch.setDepth(spec.depth());
+      } else if (!git.getRepository().getObjectDatabase().getShallowCommits().isEmpty()) {
+        fetch.setUnshallow(true);
+      }
+      fetch.call();
+      FETCHES.increment();
+    }
+
+    /** The mirror repository, or null if it has not been opened yet. */
+    private Repository repository() {
+      Git current = git;
+      return current != null ? current.getRepository() : null;
+    }
+
+    /** Opens the mirror, creating an empty one first if needed. Call with the lock held. */
+    private void open() throws IOException, GitAPIException {
+      if (git != null) {
+        return;
+      }
+      if (Files.isDirectory(dir.resolve("objects"))) {
+        git = Git.open(dir.toFile());
+        return;
+      }
+      log.info(String.format("[GitMirror] creating a mirror of %s in %s", remote.url(), dir));
+      git = Git.init().setBare(true).setDirectory(dir.toFile()).call();
+      StoredConfig cfg = git.getRepository().getConfig();
+      cfg.setString("remote", ORIGIN, "url", remote.url());
+      cfg.save();
+      MIRRORS_CREATED.increment();
+    }
+
+    /** File locked across processes sharing the mirror; lock it with {@link #lock} held. */
+    private FileChannel lockChannel() throws IOException {
+      Files.createDirectories(dir.getParent());
+      return FileChannel.open(
+          dir.resolveSibling(dir.getFileName() + ".lock"),
+          StandardOpenOption.CREATE,
+          StandardOpenOption.WRITE);
+    }
+
+    private void close() {
+      lock.lock();
+      try {
+        if (git != null) {
+          git.close();
+          git = null;
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.donesvad.git;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.eclipse.jgit.api.TransportCommand;
+import org.eclipse.jgit.transport.CredentialsProvider;
+import org.eclipse.jgit.transport.Transport;
+import org.eclipse.jgit.transport.TransportHttp;
+import org.eclipse.jgit.transport.URIish;
+import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
+
+/**
+ * HTTPS Git remote and the credentials used for every clone, fetch and push against it. Plain HTTP
+ * is accepted only for the hosts in {@code plainHttpHosts} ({@code tc.git.plainHttpHosts}), e.g.
+ * the {@link LocalGitServer} on localhost.
+ */
+public record GitRemote(String url, String username, String token, Set<String> plainHttpHosts) {
+
+  public GitRemote {
+    plainHttpHosts =
+        plainHttpHosts == null
+            ? Set.of()
+            : plainHttpHosts.stream()
+                .map(host -> host.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    URI uri = url == null ? null : URI.create(url);
+    if (uri == null || !isAllowed(uri.getScheme(), uri.getHost(), plainHttpHosts)) {
+      throw new IllegalArgumentException(
+          "Expected https URL or http URL of a host in tc.git.plainHttpHosts, got: " + url);
+    }
+    if (username == null || username.isBlank()) username = "git"; // GitHub accepts any non-empty
+  }
+
+  /** A remote reachable over HTTPS only. */
+  public GitRemote(String url, String username, String token) {
+    this(url, username, token, Set.of());
+  }
+
+  public CredentialsProvider credentials() {
+    return new UsernamePasswordCredentialsProvider(username, token);
+  }
+
+  /**
+   * Sets the credentials on a clone/fetch/push command and makes it refuse any transport but HTTP,
+   * and plain HTTP to hosts not allowed, e.g. when a url.insteadOf rule rewrites the URL.
+   */
+  public <C extends TransportCommand<C, ?>> C configure(C command) {
+    return command.setCredentialsProvider(credentials()).setTransportConfigCallback(this::prepare);
+  }
+
+  /** Same as {@link #configure} for a transport opened directly. */
+  public Transport prepare(Transport transport) {
+    URIish uri = transport.getURI();
+    if (!(transport instanceof TransportHttp)
+        || !isAllowed(uri.getScheme(), uri.getHost(), plainHttpHosts)) {
+      transport.close();
+      throw new IllegalStateException("URL rewrite to non-HTTPS detected: " + uri);
+    }
+    transport.setCredentialsProvider(credentials());
+    return transport;
+  }
+
+  private static boolean isAllowed(String scheme, String host, Set<String> plainHttpHosts) {
+    if ("https".equalsIgnoreCase(scheme)) return true;
+    return "http".equalsIgnoreCase(scheme)
+        && host != null
+        && plainHttpHosts.contains(host.toLowerCase(Locale.ROOT));
+  }
+}
@@ -0,0 +1,80 @@
+package com.donesvad.git;
+
+import java.io.IOException;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+import org.eclipse.jgit.dircache.DirCache;
+import org.eclipse.jgit.dircache.DirCacheEditor;
+import org.eclipse.jgit.dircache.DirCacheEditor.DeletePath;
+import org.eclipse.jgit.dircache.DirCacheEditor.PathEdit;
+import org.eclipse.jgit.dircache.DirCacheEntry;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+/**
+ * Builds commits directly in a repository's object database: the parent's tree is loaded into an
+ * in-core {@link DirCache}, the patched paths are replaced with newly inserted blobs, and the
+ * resulting trees and commit are written with one {@link ObjectInserter}. No working tree, index
+ * file or ref is touched, so it also works on bare repositories and concurrently with other users
+ * of the same repository.
+ */
+@UtilityClass
+public final class InMemoryCommitBuilder {
+
+  /**
+   * Writes a commit applying {@code patch} on top of {@code parent} and returns its id; a null
+   * {@code parent} makes a root commit containing just the patch.
+   */
+  public static ObjectId commit(
+      Repository repo, ObjectId parent, PatchSet patch, String message) throws IOException {
+    try (ObjectInserter inserter = repo.newObjectInserter();
+        ObjectReader reader = inserter.newReader();
+        RevWalk walk = new RevWalk(reader)) {
+      RevCommit parentCommit = parent == null ? null : walk.parseCommit(parent);
+      DirCache index =
+          parentCommit == null
+              ? DirCache.newInCore()
+              : DirCache.read(reader, parentCommit.getTree());
+      DirCacheEditor editor = index.editor();
+      for (Map.Entry<String, byte[]> file : patch.files().entrySet()) {
+        if (file.getValue() == null) {
+          editor.add(new DeletePath(file.getKey()));
+          continue;
+        }
+        ObjectId blob = inserter.insert(Constants.OBJ_BLOB, file.getValue());
+        editor.add(
+            new PathEdit(file.getKey()) {
+              @Override
+              public void apply(DirCacheEntry entry) {
+                if (entry.getRawMode() == 0) {
+                  entry.setFileMode(FileMode.REGULAR_FILE);
+                }
+                entry.setObjectId(blob);
+              }
+            });
+      }
+      editor.finish();
+
+      CommitBuilder commit = new CommitBuilder();
+      commit.setTreeId(index.writeTree(inserter));
+      if (parentCommit != null) {
+        commit.setParentId(parentCommit);
+      }
+      PersonIdent ident = new PersonIdent(repo);
+      commit.setAuthor(ident);
+      commit.setCommitter(ident);
+      commit.setMessage(message);
+      ObjectId id = inserter.insert(commit);
+      inserter.flush();
+      return id;
+    }
+  }
+}
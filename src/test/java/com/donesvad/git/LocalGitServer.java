@@ -0,0 +1,296 @@
+package com.donesvad.git;
+
+import com.donesvad.configuration.TestConfig;
+import com.donesvad.util.FileUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.apachecommons.CommonsLog;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.transport.PacketLineOut;
+import org.eclipse.jgit.transport.ReceivePack;
+import org.eclipse.jgit.transport.RefAdvertiser.PacketLineOutRefAdvertiser;
+import org.eclipse.jgit.transport.UploadPack;
+import org.springframework.stereotype.Component;
+
+/**
+ * Embedded Git server standing in for {@code tc.dslRepoUrl}, so the VCS sync tests push and fetch
+ * over the local network and the suite runs without internet access. Enabled with {@code
+ * tc.git.server.enabled}; it starts with the Spring context, i.e. once per test session, and serves
+ * one bare repository over Git's smart HTTP protocol (clone, fetch, shallow fetch and push, no
+ * authentication) until the context closes.
+ *
+ * <p>The repository is seeded from {@code tc.git.server.seedDir}, either a Git repository whose
+ * branches are copied or a plain directory committed to {@code tc.dslRepoBranch}, and otherwise
+ * from the {@code dsl-repo} classpath directory. The test JVM reaches it as {@link #localUrl()} on
+ * localhost, TeamCity as {@link #advertisedUrl()} on {@code tc.git.server.advertisedHost}, e.g. the
+ * test runner's service name on the compose network. When the server is disabled both return
+ * {@code tc.dslRepoUrl}.
+ */
+@CommonsLog
+@Component
+public class LocalGitServer {
+
+  private static final String UPLOAD_PACK = "git-upload-pack";
+  private static final String RECEIVE_PACK = "git-receive-pack";
+  private static final String SEED_RESOURCE = "/dsl-repo";
+
+  private final TestConfig config;
+  private final TestConfig.GitServer settings;
+  private final String name;
+  private final LongAdder uploads = new LongAdder();
+  private final LongAdder receives = new LongAdder();
+  private HttpServer server;
+  private ExecutorService executor;
+  private Path dir;
+  private Repository repo;
+
+  public LocalGitServer(TestConfig config) {
+    this.config = config;
+    this.settings = config.getGit().getServer();
+    this.name = repoName(config.getDslRepoUrl());
+  }
+
+  /** URL of the served repository for Git operations of the test JVM. */
+  public String localUrl() {
+    return server == null ? config.getDslRepoUrl() : url("localhost");
+  }
+
+  /**
+   * The repository at {@link #localUrl()} with the credentials of {@code tc.vcsUsername}/{@code
+   * tc.vcsToken}, as the tests push to and fetch from it.
+   */
+  public GitRemote localRemote() {
+    return new GitRemote(
+        localUrl(),
+        config.getVcsUsername(),
+        config.getVcsToken(),
+        Set.copyOf(config.getGit().getPlainHttpHosts()));
+  }
+
+  /** URL of the served repository for TeamCity's VCS roots. */
+  public String advertisedUrl() {
+    return server == null ? config.getDslRepoUrl() : url(settings.getAdvertisedHost());
+  }
+
+  private String url(String host) {
+    return String.format("http://%s:%d/%s.git", host, server.getAddress().getPort(), name);
+  }
+
+  @PostConstruct
+  public void start() throws IOException, GitAPIException {
+    if (!settings.isEnabled()) {
+      return;
+    }
+    dir = Files.createTempDirectory("tc-git-server-");
+    Path gitDir = dir.resolve(name + ".git");
+    String seed = seed(gitDir);
+    repo = new FileRepositoryBuilder().setGitDir(gitDir.toFile()).setBare().build();
+    server =
+        HttpServer.create(new InetSocketAddress(settings.getBindAddress(), settings.getPort()), 0);
+    server.createContext("/" + name + ".git/", this::handle);
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    server.setExecutor(executor);
+    server.start();
+    log.info(
+        String.format(
+            "[GitServer] serving %s as %s (TeamCity: %s)", seed, localUrl(), advertisedUrl()));
+  }
+
+  @PreDestroy
+  public void stop() {
+    if (server == null) {
+      return;
+    }
+    server.stop(0);
+    executor.shutdownNow();
+    repo.close();
+    log.info(
+        String.format("[GitServer] uploadPacks=%d receivePacks=%d", uploads.sum(), receives.sum()));
+    try {
+      FileUtil.deleteRecursively(dir);
+    } catch (IOException e) {
+      log.warn("[GitServer] cannot delete " + dir, e);
+    }
+    server = null;
+  }
+
+  /** Creates the bare repository in {@code gitDir} and returns a description of the seed. */
+  private String seed(Path gitDir) throws IOException, GitAPIException {
+    String seedDir = settings.getSeedDir();
+    if (seedDir != null && !seedDir.isBlank()) {
+      Path source = Path.of(seedDir);
+      if (Files.isDirectory(source.resolve(Constants.DOT_GIT))
+          || Files.isRegularFile(source.resolve(Constants.HEAD))) {
+        Git.cloneRepository()
+            .setURI(source.toUri().toString())
+            .setDirectory(gitDir.toFile())
+            .setBare(true)
+            .setCloneAllBranches(true)
+            .call()
+            .close();
+        return "repository " + source;
+      }
+      commitDirectory(gitDir, source);
+      return "directory " + source;
+    }
+    URL resource = LocalGitServer.class.getResource(SEED_RESOURCE);
+    if (resource == null) {
+      throw new IllegalStateException("Classpath directory " + SEED_RESOURCE + " not found");
+    }
+    try {
+      URI uri = resource.toURI();
+      if (!"jar".equals(uri.getScheme())) {
+        commitDirectory(gitDir, Path.of(uri));
+      } else {
+        try (FileSystem jar = FileSystems.newFileSystem(uri, Map.of())) {
+          commitDirectory(gitDir, jar.getPath(SEED_RESOURCE));
+        }
+      }
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException("Invalid seed resource: " + resource, e);
+    }
+    return "classpath:" + SEED_RESOURCE;
+  }
+
+  /** Commits all files under {@code source} as the first commit of {@code tc.dslRepoBranch}. */
+  private void commitDirectory(Path gitDir, Path source) throws IOException, GitAPIException {
+    PatchSet files = PatchSet.create();
+    List<Path> paths;
+    try (Stream<Path> walk = Files.walk(source)) {
+      paths = walk.filter(Files::isRegularFile).toList();
+    }
+    for (Path path : paths) {
+      files.put(source.relativize(path).toString().replace('\\', '/'), Files.readAllBytes(path));
+    }
+    String branchRef = config.getDslRepoBranch();
+    try (Git git = Git.init().setBare(true).setDirectory(gitDir.toFile()).call()) {
+      Repository bare = git.getRepository();
+      ObjectId commit = InMemoryCommitBuilder.commit(bare, null, files, "Seed DSL repository");
+      RefUpdate branch = bare.updateRef(branchRef);
+      branch.setNewObjectId(commit);
+      branch.update();
+      bare.updateRef(Constants.HEAD).link(branchRef);
+    }
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String path = exchange.getRequestURI().getPath();
+      String action = path.substring(path.indexOf(".git/") + ".git/".length());
+      String method = exchange.getRequestMethod();
+      if ("GET".equals(method) && "info/refs".equals(action)) {
+        advertise(exchange, service(exchange.getRequestURI().getQuery()));
+      } else if ("POST".equals(method)
+          && (UPLOAD_PACK.equals(action) || RECEIVE_PACK.equals(action))) {
+        rpc(exchange, action);
+      } else {
+        exchange.sendResponseHeaders(404, -1);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn(
+          String.format(
+              "[GitServer] %s %s failed", exchange.getRequestMethod(), exchange.getRequestURI()),
+          e);
+    }
+  }
+
+  /** {@code service} parameter of an info/refs request; the dumb protocol is not supported. */
+  private static String service(String query) {
+    if (query != null) {
+      for (String param : query.split("&")) {
+        if (param.equals("service=" + UPLOAD_PACK) || param.equals("service=" + RECEIVE_PACK)) {
+          return param.substring("service=".length());
+        }
+      }
+    }
+    return null;
+  }
+
+  private void advertise(HttpExchange exchange, String service) throws IOException {
+    if (service == null) {
+      exchange.sendResponseHeaders(403, -1);
+      return;
+    }
+    String contentType = "application/x-" + service + "-advertisement";
+    exchange.getResponseHeaders().set("Content-Type", contentType);
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    exchange.sendResponseHeaders(200, 0);
+    try (OutputStream out = exchange.getResponseBody()) {
+      PacketLineOut pckOut = new PacketLineOut(out);
+      pckOut.writeString("# service=" + service + "\n");
+      pckOut.end();
+      PacketLineOutRefAdvertiser advertiser = new PacketLineOutRefAdvertiser(pckOut);
+      if (UPLOAD_PACK.equals(service)) {
+        UploadPack upload = new UploadPack(repo);
+        upload.setBiDirectionalPipe(false);
+        upload.sendAdvertisedRefs(advertiser);
+      } else {
+        ReceivePack receive = new ReceivePack(repo);
+        receive.setBiDirectionalPipe(false);
+        receive.sendAdvertisedRefs(advertiser);
+      }
+    }
+  }
+
+  private void rpc(HttpExchange exchange, String service) throws IOException {
+    exchange.getResponseHeaders().set("Content-Type", "application/x-" + service + "-result");
+    exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+    exchange.sendResponseHeaders(200, 0);
+    try (InputStream in = requestBody(exchange);
+        OutputStream out = exchange.getResponseBody()) {
+      if (UPLOAD_PACK.equals(service)) {
+        uploads.increment();
+        UploadPack upload = new UploadPack(repo);
+        upload.setBiDirectionalPipe(false);
+        upload.upload(in, out, null);
+      } else {
+        receives.increment();
+        ReceivePack receive = new ReceivePack(repo);
+        receive.setBiDirectionalPipe(false);
+        receive.receive(in, out, null);
+      }
+    }
+  }
+
+  private static InputStream requestBody(HttpExchange exchange) throws IOException {
+    InputStream body = exchange.getRequestBody();
+    return "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))
+        ? new GZIPInputStream(body)
+        : body;
+  }
+
+  /** Last path segment of the upstream URL without {@code .git}, so local URLs look alike. */
+  private static String repoName(String url) {
+    String path = url == null ? "" : URI.create(url).getPath();
+    String last = path.substring(path.lastIndexOf('/') + 1);
+    if (last.endsWith(".git")) last = last.substring(0, last.length() - ".git".length());
+    return last.isBlank() ? "dsl" : last;
+  }
+}
@@ -0,0 +1,56 @@
+package com.donesvad.git;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Files to write or delete in one commit, keyed by their path in the repository (e.g. {@code
+ * .teamcity/patches/buildTypes/Build.kts}). Contents usually come from classpath resources such as
+ * {@code /vcs-sync/updated-Build.txt}.
+ */
+public final class PatchSet {
+
+  private final Map<String, byte[]> files = new LinkedHashMap<>();
+
+  public static PatchSet create() {
+    return new PatchSet();
+  }
+
+  public PatchSet put(String path, byte[] content) {
+    files.put(path, content.clone());
+    return this;
+  }
+
+  /** Writes the content of a classpath resource to {@code path}. */
+  public PatchSet putResource(String path, String resourcePath) throws IOException {
+    try (InputStream is = PatchSet.class.getResourceAsStream(resourcePath)) {
+      if (is == null) {
+        throw new IOException("Resource not found: " + resourcePath);
+      }
+      files.put(path, is.readAllBytes());
+    }
+    return this;
+  }
+
+  public PatchSet delete(String path) {
+    files.put(path, null);
+    return this;
+  }
+
+  /** Path to new content; a null content deletes the path. */
+  public Map<String, byte[]> files() {
+    return Collections.unmodifiableMap(files);
+  }
+
+  public boolean isEmpty() {
+    return files.isEmpty();
+  }
+
+  @Override
+  public String toString() {
+    return files.keySet().toString();
+  }
+}
@@ -0,0 +1,71 @@
+package com.donesvad.git;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+import lombok.extern.apachecommons.CommonsLog;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.internal.storage.dfs.DfsRepositoryDescription;
+import org.eclipse.jgit.internal.storage.dfs.InMemoryRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.transport.PushResult;
+import org.eclipse.jgit.transport.RefSpec;
+import org.eclipse.jgit.transport.RemoteRefUpdate;
+
+/** Branch listing and deletion on a remote without a clone of it. */
+@CommonsLog
+@UtilityClass
+public final class RemoteBranches {
+
+  /** Branches whose short name starts with {@code prefix}, full ref name to tip, via ls-remote. */
+  public static Map<String, ObjectId> list(GitRemote remote, String prefix)
+      throws GitAPIException {
+    Collection<Ref> refs =
+        remote.configure(Git.lsRemoteRepository()).setRemote(remote.url()).setHeads(true).call();
+    Map<String, ObjectId> branches = new LinkedHashMap<>();
+    for (Ref ref : refs) {
+      if (ref.getName().startsWith(Constants.R_HEADS + prefix)) {
+        branches.put(ref.getName(), ref.getObjectId());
+      }
+    }
+    return branches;
+  }
+
+  /**
+   * Deletes all {@code branchRefs} in one push with a delete refspec per branch, and returns the
+   * ones that are gone afterwards (deleted or already absent). Deleting needs no objects, so the
+   * push is sent from an empty in-memory repository.
+   */
+  public static List<String> delete(GitRemote remote, Collection<String> branchRefs)
+      throws GitAPIException {
+    List<String> deleted = new ArrayList<>();
+    if (branchRefs.isEmpty()) {
+      return deleted;
+    }
+    List<RefSpec> specs = branchRefs.stream().map(ref -> new RefSpec(":" + ref)).toList();
+    try (InMemoryRepository repo =
+            new InMemoryRepository(new DfsRepositoryDescription("remote-branches"));
+        Git git = Git.wrap(repo)) {
+      for (PushResult result :
+          remote.configure(git.push()).setRemote(remote.url()).setRefSpecs(specs).call()) {
+        for (RemoteRefUpdate update : result.getRemoteUpdates()) {
+          switch (update.getStatus()) {
+            case OK, NON_EXISTING -> deleted.add(update.getRemoteName());
+            default ->
+                log.warn(
+                    String.format(
+                        "[RemoteBranches] could not delete %s: %s %s",
+                        update.getRemoteName(), update.getStatus(), update.getMessage()));
+          }
+        }
+      }
+    }
+    return deleted;
+  }
+}
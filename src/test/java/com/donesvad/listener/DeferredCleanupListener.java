@@ -0,0 +1,24 @@
+package com.donesvad.listener;
+
+import com.donesvad.cleanup.DeferredCleanup;
+import com.donesvad.cleanup.TempBranchCleanup;
+import com.donesvad.fixture.ProjectPool;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Blocks the end of the launcher session until {@link DeferredCleanup} has deleted everything tests
+ * registered, including the {@link ProjectPool} projects nobody leased, and {@link
+ * TempBranchCleanup} has deleted their Git branches, so no project or temporary branch outlives the
+ * run. Registered before {@link RestMetricsExportListener} so the cleanup requests are part of the
+ * exported metrics.
+ */
+public class DeferredCleanupListener implements LauncherSessionListener {
+
+  @Override
+  public void launcherSessionClosed(LauncherSession session) {
+    ProjectPool.closeAllInstances();
+    DeferredCleanup.awaitAllInstances();
+    TempBranchCleanup.deleteAllInstances();
+  }
+}
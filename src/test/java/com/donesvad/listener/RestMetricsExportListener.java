@@ -0,0 +1,67 @@
+package com.donesvad.listener;
+
+import com.donesvad.rest.metrics.MetricsRegistry;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.model.Label;
+import io.qameta.allure.model.Status;
+import io.qameta.allure.model.TestResult;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+import lombok.extern.apachecommons.CommonsLog;
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Exports the run-level {@link MetricsRegistry} whenever a launcher session closes: as an
+ * OpenMetrics text file ({@code -Dtc.metrics.file}, default {@value #DEFAULT_FILE}) for tracking
+ * TeamCity REST performance across builds, and as attachments of a synthetic "Run metrics" Allure
+ * result. Surefire may open several sessions per JVM (e.g. for reruns); the registry is cumulative
+ * and both outputs are overwritten, so the last export covers the whole run.
+ */
+@CommonsLog
+public class RestMetricsExportListener implements LauncherSessionListener {
+
+  static final String DEFAULT_FILE = "target/metrics/teamcity-rest.prom";
+
+  private static final String RESULT_UUID = UUID.randomUUID().toString();
+
+  @Override
+  public void launcherSessionClosed(LauncherSession session) {
+    MetricsRegistry metrics = MetricsRegistry.global();
+    String openMetrics = metrics.toOpenMetrics();
+    Path file = Path.of(System.getProperty("tc.metrics.file", DEFAULT_FILE));
+    try {
+      metrics.writeOpenMetrics(file);
+      log.info(String.format("[Metrics] wrote %s%n%s", file, metrics.summaryTable()));
+      attachToAllure(openMetrics, metrics.summaryTable());
+    } catch (RuntimeException e) {
+      // metrics must never fail the run
+      log.warn("[Metrics] export failed", e);
+    }
+  }
+
+  private static void attachToAllure(String openMetrics, String table) {
+    AllureLifecycle lifecycle = Allure.getLifecycle();
+    lifecycle.scheduleTestCase(
+        new TestResult()
+            .setUuid(RESULT_UUID)
+            .setName("TeamCity REST metrics")
+            .setFullName("run-metrics.teamcity-rest")
+            .setHistoryId("run-metrics.teamcity-rest")
+            .setStatus(Status.PASSED)
+            .setLabels(List.of(new Label().setName("suite").setValue("Run metrics"))));
+    lifecycle.startTestCase(RESULT_UUID);
+    lifecycle.addAttachment(
+        "Latency per endpoint", "text/plain", "txt", table.getBytes(StandardCharsets.UTF_8));
+    lifecycle.addAttachment(
+        "teamcity-rest.prom",
+        "application/openmetrics-text",
+        "prom",
+        openMetrics.getBytes(StandardCharsets.UTF_8));
+    lifecycle.stopTestCase(RESULT_UUID);
+    lifecycle.writeTestCase(RESULT_UUID);
+  }
+}
@@ -0,0 +1,70 @@
+package com.donesvad.parallel;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfigurationStrategy;
+
+/**
+ * Sizes JUnit's parallel executor by a configurable number of tests in flight ({@code
+ * junit.jupiter.execution.parallel.config.max-concurrency}, default {@value
+ * #DEFAULT_MAX_CONCURRENCY}) instead of by CPU cores: the scenario tests mostly wait on TeamCity and
+ * Git, so a core-sized pool would leave it idle.
+ *
+ * <p>The {@link ForkJoinPool} gets one worker per test in flight, and each test runs with its
+ * {@code @BeforeEach}/{@code @AfterEach} methods on that worker. Tests beyond the cap wait until a
+ * running one finishes.
+ */
+public class MaxConcurrencyExecutionStrategy implements ParallelExecutionConfigurationStrategy {
+
+  /** JUnit hands a custom strategy only the keys under this prefix, with the prefix removed. */
+  static final String CONFIG_PREFIX = "junit.jupiter.execution.parallel.config.";
+
+  static final String MAX_CONCURRENCY = "max-concurrency";
+  static final int DEFAULT_MAX_CONCURRENCY = 32;
+  private static final int KEEP_ALIVE_SECONDS = 30;
+
+  @Override
+  public ParallelExecutionConfiguration createConfiguration(ConfigurationParameters parameters) {
+    int cap =
+        Math.max(
+            1,
+            parameters.get(MAX_CONCURRENCY, Integer::parseInt).orElse(DEFAULT_MAX_CONCURRENCY));
+    return new Configuration(cap);
+  }
+
+  private record Configuration(int parallelism) implements ParallelExecutionConfiguration {
+
+    @Override
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    @Override
+    public int getMinimumRunnable() {
+      return parallelism;
+    }
+
+    @Override
+    public int getMaxPoolSize() {
+      return parallelism;
+    }
+
+    @Override
+    public int getCorePoolSize() {
+      return parallelism;
+    }
+
+    @Override
+    public int getKeepAliveSeconds() {
+      return KEEP_ALIVE_SECONDS;
+    }
+
+    /** At the cap, a blocked worker simply waits instead of failing the test. */
+    @Override
+    public Predicate<? super ForkJoinPool> getSaturatePredicate() {
+      return pool -> true;
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package com.donesvad.parallel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.platform.engine.ConfigurationParameters;
+import org.junit.platform.engine.support.config.PrefixedConfigurationParameters;
+import org.junit.platform.engine.support.hierarchical.ParallelExecutionConfiguration;
+
+/**
+ * Builds the executor configuration from {@code junit-platform.properties} the way Jupiter hands it
+ * to a custom strategy: only the keys under {@value MaxConcurrencyExecutionStrategy#CONFIG_PREFIX},
+ * with the prefix removed.
+ */
+public class MaxConcurrencyExecutionStrategyTest {
+
+  @Test
+  void capComesFromJunitPlatformProperties() throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in =
+        getClass().getResourceAsStream("/" + ConfigurationParameters.CONFIG_FILE_NAME)) {
+      properties.load(in);
+    }
+    String configured =
+        properties.getProperty(
+            MaxConcurrencyExecutionStrategy.CONFIG_PREFIX
+                + MaxConcurrencyExecutionStrategy.MAX_CONCURRENCY);
+    assertThat(configured).as("max-concurrency in junit-platform.properties").isNotNull();
+
+    ConfigurationParameters parameters =
+        new PrefixedConfigurationParameters(
+            new PropertiesParameters(properties), MaxConcurrencyExecutionStrategy.CONFIG_PREFIX);
+    // the strategy reads a key the prefixed view actually has, not the built-in default
+    assertThat(parameters.get(MaxConcurrencyExecutionStrategy.MAX_CONCURRENCY)).isPresent();
+    ParallelExecutionConfiguration configuration =
+        new MaxConcurrencyExecutionStrategy().createConfiguration(parameters);
+
+    int cap = Integer.parseInt(configured.trim());
+    assertThat(configuration.getParallelism()).isEqualTo(cap);
+    assertThat(configuration.getMaxPoolSize()).isEqualTo(cap);
+  }
+
+  private record PropertiesParameters(Properties properties) implements ConfigurationParameters {
+
+    @Override
+    public Optional<String> get(String key) {
+      return Optional.ofNullable(properties.getProperty(key)).map(String::trim);
+    }
+
+    @Override
+    public Optional<Boolean> getBoolean(String key) {
+      return get(key).map(Boolean::parseBoolean);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public int size() {
+      return properties.size();
+    }
+
+    @Override
+    public Set<String> keySet() {
+      return properties.stringPropertyNames();
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package com.donesvad.rest.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.donesvad.rest.metrics.MetricsRegistry;
+import com.donesvad.wait.Poller;
+import com.donesvad.wait.Wakeup;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link AuditChangeFeed} against a local stub of {@code /app/rest/audit}: an event published by
+ * the stub wakes up the waiter whose build type it concerns, long before its next scheduled poll,
+ * and no other subscriber sees it.
+ */
+public class AuditChangeFeedTest {
+
+  private static final Pattern START = Pattern.compile("start:(\\d+)");
+  private static final Pattern COUNT = Pattern.compile("count:(\\d+)");
+  private static final long POLL_INTERVAL_MS = 60_000;
+
+  // newest first, like TeamCity
+  private final List<String> events = new CopyOnWriteArrayList<>();
+  private final CountDownLatch firstRead = new CountDownLatch(1);
+  private HttpServer server;
+  private ApiClient api;
+  private AuditChangeFeed feed;
+
+  @BeforeEach
+  void startStub() throws IOException {
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/app/rest/audit", this::serveAudit);
+    server.start();
+    api =
+        new ApiClient(
+            "user",
+            "password",
+            ApiClientOptions.builder()
+                .baseUri("http://127.0.0.1:" + server.getAddress().getPort())
+                // keeps the stub's gauges out of the run's metrics
+                .metrics(new MetricsRegistry())
+                .build());
+    feed =
+        new AuditChangeFeed(
+            new TeamCityClient(api, new ObjectMapper()),
+            AuditFeedSettings.builder()
+                .enabled(true)
+                .pollIntervalMs(50)
+                .pageSize(10)
+                .maxPages(3)
+                .build());
+  }
+
+  @AfterEach
+  void stopStub() {
+    feed.close();
+    api.close();
+    server.stop(0);
+  }
+
+  @Test
+  void eventWakesUpTheWaiterOfItsBuildType() throws Exception {
+    events.add(event(1, "Other_Build"));
+    List<Long> otherEvents = new CopyOnWriteArrayList<>();
+    Wakeup wakeup = new Wakeup();
+    AtomicInteger paramCount = new AtomicInteger(4);
+    AtomicInteger polls = new AtomicInteger();
+    CountDownLatch firstPoll = new CountDownLatch(1);
+    try (AuditChangeFeed.Subscription other =
+            feed.subscribe(
+                e -> e.relatedIds().contains("Other_Build"), e -> otherEvents.add(e.getId()));
+        AuditChangeFeed.Subscription waited =
+            feed.subscribe(e -> e.relatedIds().contains("Proj_Build"), e -> wakeup.signal())) {
+      CompletableFuture<Integer> waiter =
+          CompletableFuture.supplyAsync(
+              () ->
+                  Poller.await(
+                      "parameter count",
+                      attempt -> POLL_INTERVAL_MS,
+                      Duration.ofMillis(2 * POLL_INTERVAL_MS),
+                      wakeup,
+                      attempt -> {
+                        polls.incrementAndGet();
+                        // read before releasing the main thread, which then changes the count
+                        int count = paramCount.get();
+                        firstPoll.countDown();
+                        return count;
+                      },
+                      count -> count == 3));
+      // the feed's first read only records where the log ends
+      assertThat(firstRead.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(firstPoll.await(10, TimeUnit.SECONDS)).isTrue();
+
+      paramCount.set(3);
+      events.add(0, event(2, "Proj_Build"));
+
+      assertThat(waiter.get(10, TimeUnit.SECONDS)).isEqualTo(3);
+      assertThat(polls.get()).isEqualTo(2);
+      assertThat(otherEvents).isEmpty();
+    }
+  }
+
+  private void serveAudit(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      String query = exchange.getRequestURI().getQuery();
+      int start = param(START, query, 0);
+      int count = param(COUNT, query, 100);
+      List<String> all = List.copyOf(events);
+      List<String> page =
+          all.subList(Math.min(start, all.size()), Math.min(start + count, all.size()));
+      byte[] body =
+          String.format("{\"count\":%d,\"auditEvent\":[%s]}", page.size(), String.join(",", page))
+              .getBytes(StandardCharsets.UTF_8);
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    }
+    firstRead.countDown();
+  }
+
+  private static int param(Pattern pattern, String query, int fallback) {
+    Matcher matcher = pattern.matcher(query == null ? "" : query);
+    return matcher.find() ? Integer.parseInt(matcher.group(1)) : fallback;
+  }
+
+  private static String event(long id, String buildTypeId) {
+    return String.format(
+        "{\"id\":%d,\"action\":{\"name\":\"buildTypeEdited\"},\"relatedEntities\":{\"entity\":"
+            + "[{\"type\":\"buildType\",\"buildType\":{\"id\":\"%s\"}}]}}",
+        id, buildTypeId);
+  }
+}
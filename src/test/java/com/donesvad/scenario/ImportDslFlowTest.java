@@ -24,7 +24,7 @@ public class ImportDslFlowTest extends BaseTest {
 
   @AfterEach
   void cleanUpProjectId() {
-    actions.ensureProjectAbsent(projectId);
+    actions.deleteProjectLater(projectId);
   }
 
   @Test
@@ -0,0 +1,35 @@
+package com.donesvad.util;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import lombok.experimental.UtilityClass;
+
+/** File system helpers shared by the Git and workspace code of the tests. */
+@UtilityClass
+public final class FileUtil {
+
+  /** Deletes a file or a directory with everything below it; does nothing if it does not exist. */
+  public static void deleteRecursively(Path path) throws IOException {
+    if (path == null || !Files.exists(path)) return;
+    Files.walkFileTree(
+        path,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            Files.deleteIfExists(file);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+            Files.deleteIfExists(dir);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+}
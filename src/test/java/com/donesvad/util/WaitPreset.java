@@ -6,10 +6,7 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Getter
 public enum WaitPreset {
-  TIMEOUT(120_000L),
-  SHORT_POLLING(250L),
-  MEDIUM_POLLING(1_000L),
-  LONG_POLLING(2_000L);
+  TIMEOUT(120_000L);
 
   private final long value;
 }
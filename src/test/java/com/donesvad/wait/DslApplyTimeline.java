@@ -0,0 +1,82 @@
+package com.donesvad.wait;
+
+import com.donesvad.rest.client.VersionedSettingsWaitStatus;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The distinct versioned settings statuses one project went through after a trigger (versioned
+ * settings config put, manual load), each with the {@link System#nanoTime()} it was first seen at.
+ */
+public final class DslApplyTimeline {
+
+  public static final String TIME_TO_DSL_START = "time_to_dsl_start";
+  public static final String DSL_DURATION = "dsl_duration";
+  public static final String TIME_TO_APPLIED = "time_to_applied";
+
+  /** A status first seen {@code nanos} (as in {@link System#nanoTime()}). */
+  public record Transition(long nanos, String status) {}
+
+  private final String projectId;
+  private final String trigger;
+  private final long startNanos;
+  private final List<Transition> transitions = new ArrayList<>();
+
+  DslApplyTimeline(String projectId, String trigger, long startNanos) {
+    this.projectId = projectId;
+    this.trigger = trigger;
+    this.startNanos = startNanos;
+  }
+
+  /** Adds {@code status} unless it equals the latest one; returns whether it was added. */
+  synchronized boolean observe(String status, long nanos) {
+    if (!transitions.isEmpty() && transitions.get(transitions.size() - 1).status().equals(status)) {
+      return false;
+    }
+    transitions.add(new Transition(nanos, status));
+    return true;
+  }
+
+  long elapsedNanos(long nanos) {
+    return nanos - startNanos;
+  }
+
+  /**
+   * Durations of the phases reached so far, in nanoseconds: trigger to "Running DSL", the time
+   * spent in "Running DSL", and trigger to "Changes from VCS are applied".
+   */
+  synchronized Map<String, Long> phases() {
+    Map<String, Long> phases = new LinkedHashMap<>();
+    Long dslStart = null;
+    for (Transition t : transitions) {
+      boolean running = t.status().contains(VersionedSettingsWaitStatus.RUNNING_DSL.phrase());
+      if (dslStart == null && running) {
+        dslStart = t.nanos();
+        phases.put(TIME_TO_DSL_START, dslStart - startNanos);
+      } else if (dslStart != null && !running && !phases.containsKey(DSL_DURATION)) {
+        phases.put(DSL_DURATION, t.nanos() - dslStart);
+      }
+      if (t.status().contains(VersionedSettingsWaitStatus.APPLIED_CHANGES.phrase())) {
+        phases.putIfAbsent(TIME_TO_APPLIED, t.nanos() - startNanos);
+      }
+    }
+    return phases;
+  }
+
+  synchronized String render() {
+    StringBuilder sb =
+        new StringBuilder(String.format("DSL apply of %s after %s%n", projectId, trigger));
+    sb.append(String.format("+%12s  %s%n", millis(0), trigger));
+    for (Transition t : transitions) {
+      sb.append(String.format("+%12s  %s%n", millis(t.nanos() - startNanos), t.status()));
+    }
+    phases().forEach((phase, nanos) -> sb.append(String.format("%s = %s%n", phase, millis(nanos))));
+    return sb.toString();
+  }
+
+  static String millis(long nanos) {
+    return String.format("%.3f ms", nanos / 1e6);
+  }
+}
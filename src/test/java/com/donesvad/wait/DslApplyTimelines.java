@@ -0,0 +1,69 @@
+package com.donesvad.wait;
+
+import com.donesvad.rest.metrics.MetricsRegistry;
+import io.qameta.allure.Allure;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.apachecommons.CommonsLog;
+import org.springframework.stereotype.Component;
+
+/**
+ * Open {@link DslApplyTimeline}s by project. Actions start a timeline when they trigger a DSL
+ * apply, the status poller feeds every observed status into it (only transitions are logged), and
+ * the waiter finishes it: the phase durations go to the run-level {@link MetricsRegistry} as timer
+ * family {@value #METRIC} (label {@code phase}) and the timeline is attached to the Allure report
+ * of the running test. Timelines finished outside a test, e.g. by the {@link
+ * com.donesvad.fixture.ProjectPool} workers, are only logged.
+ */
+@CommonsLog
+@Component
+public class DslApplyTimelines {
+
+  static final String METRIC = "teamcity_dsl_apply_phase";
+
+  private final Map<String, DslApplyTimeline> open = new ConcurrentHashMap<>();
+  private final MetricsRegistry metrics = MetricsRegistry.global();
+
+  /** Starts a new timeline of {@code projectId}, dropping an unfinished one. */
+  public void start(String projectId, String trigger) {
+    open.put(projectId, new DslApplyTimeline(projectId, trigger, System.nanoTime()));
+  }
+
+  /** Records a polled status; a wait without a trigger starts its timeline at the first poll. */
+  public void observe(String projectId, String status) {
+    long now = System.nanoTime();
+    DslApplyTimeline timeline =
+        open.computeIfAbsent(projectId, id -> new DslApplyTimeline(id, "first poll", now));
+    if (timeline.observe(status, now)) {
+      log.info(
+          String.format(
+              "[DslApply] projectId=%s +%s: '%s'",
+              projectId, DslApplyTimeline.millis(timeline.elapsedNanos(now)), status));
+    }
+  }
+
+  /** Closes the timeline of {@code projectId}, recording its phases and attaching it. */
+  public void finish(String projectId) {
+    DslApplyTimeline timeline = open.remove(projectId);
+    if (timeline == null) {
+      return;
+    }
+    timeline
+        .phases()
+        .forEach(
+            (phase, nanos) ->
+                metrics
+                    .timer(
+                        METRIC,
+                        "DSL apply phases, measured from the triggering request.",
+                        "phase",
+                        phase)
+                    .record(nanos, "ok"));
+    String rendered = timeline.render();
+    log.info(String.format("[DslApply] %s", rendered));
+    if (Allure.getLifecycle().getCurrentTestCase().isEmpty()) {
+      return;
+    }
+    Allure.addAttachment("DSL apply timeline: " + projectId, "text/plain", rendered, ".txt");
+  }
+}
@@ -0,0 +1,28 @@
+package com.donesvad.wait;
+
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.Builder;
+
+/**
+ * Fast-start polling: the first polls follow each other quickly, so a condition that is met soon is
+ * detected soon, and the interval then grows by {@code multiplier} up to {@code maxIntervalMs}, so
+ * long waits do not poll more often than a fixed interval would. Every delay is spread by ±{@code
+ * jitter} (a ratio) so that parallel tests do not poll TeamCity in lockstep.
+ */
+@Builder
+public record ExponentialBackoffPolling(
+    long initialIntervalMs, long maxIntervalMs, double multiplier, double jitter)
+    implements PollingStrategy {
+
+  public static ExponentialBackoffPolling defaults() {
+    return new ExponentialBackoffPolling(250, 2_000, 1.5, 0.2);
+  }
+
+  @Override
+  public long delayMs(int attempt) {
+    double base =
+        Math.min(maxIntervalMs, initialIntervalMs * Math.pow(multiplier, attempt - 1));
+    double spread = jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+    return Math.max(1, Math.round(base * (1 + spread)));
+  }
+}
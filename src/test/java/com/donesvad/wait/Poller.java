@@ -0,0 +1,63 @@
+package com.donesvad.wait;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+
+/**
+ * Polls a condition with a {@link PollingStrategy} until it is met or the timeout expires. The
+ * sleep before the next poll never goes past the deadline, so the last poll happens right at the
+ * deadline instead of up to one interval after it. A {@link Wakeup} lets events cut the sleep
+ * short.
+ */
+public final class Poller {
+
+  private Poller() {}
+
+  /**
+   * Calls {@code poll} with the attempt number (1-based) until {@code done} accepts its result or
+   * {@code timeout} expires, and returns the last result either way; the caller asserts on it.
+   */
+  public static <T> T await(
+      String description,
+      PollingStrategy strategy,
+      Duration timeout,
+      IntFunction<T> poll,
+      Predicate<T> done) {
+    return await(description, strategy, timeout, new Wakeup(), poll, done);
+  }
+
+  /**
+   * Like {@link #await(String, PollingStrategy, Duration, IntFunction, Predicate)}, but a signal on
+   * {@code wakeup} triggers the next poll immediately and restarts the backoff from its first
+   * interval.
+   */
+  public static <T> T await(
+      String description,
+      PollingStrategy strategy,
+      Duration timeout,
+      Wakeup wakeup,
+      IntFunction<T> poll,
+      Predicate<T> done) {
+    long deadline = System.nanoTime() + timeout.toNanos();
+    int backoff = 1;
+    for (int attempt = 1; ; attempt++) {
+      wakeup.clear();
+      T result = poll.apply(attempt);
+      long remaining = deadline - System.nanoTime();
+      if (done.test(result) || remaining <= 0) {
+        return result;
+      }
+      long delay = Math.min(TimeUnit.MILLISECONDS.toNanos(strategy.delayMs(backoff++)), remaining);
+      try {
+        if (wakeup.sleep(delay)) {
+          backoff = 1;
+        }
+      } catch (InterruptedException ie) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for " + description, ie);
+      }
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.donesvad.wait;
+
+/**
+ * Decides how long a {@link Poller} sleeps between two polls of a condition that is not met yet.
+ */
+@FunctionalInterface
+public interface PollingStrategy {
+
+  /** Delay before the next poll, after poll number {@code attempt} (1-based) did not succeed. */
+  long delayMs(int attempt);
+
+  /** The same interval between all polls. */
+  static PollingStrategy fixed(long intervalMs) {
+    return attempt -> intervalMs;
+  }
+}
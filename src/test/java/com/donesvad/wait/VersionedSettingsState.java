@@ -0,0 +1,88 @@
+package com.donesvad.wait;
+
+import com.donesvad.rest.client.VersionedSettingsWaitStatus;
+import com.donesvad.rest.dto.vcs.VersionedSettingsStatusDto;
+import io.restassured.response.Response;
+import java.util.List;
+import java.util.Locale;
+import org.apache.http.HttpStatus;
+
+/**
+ * Lifecycle of a project's versioned settings as seen through
+ * /app/rest/projects/id:{projectId}/versionedSettings/status:
+ *
+ * <pre>
+ * UNKNOWN -> LOADING -> RUNNING_DSL -> APPLIED
+ *               |            |
+ *               +------------+------> FAILED
+ * </pre>
+ *
+ * A new VCS change or a manual load starts over at {@code LOADING}. {@code FAILED} (a non-empty
+ * {@code errors} field, or a message with one of the failure phrases TeamCity reports, e.g. a DSL
+ * compilation error) and {@code NOT_FOUND} end every wait at once: TeamCity does not recover from
+ * them without a new change, so waiting for the timeout would only delay the failure. Any other
+ * message is not taken as a failure, however it is worded ("0 errors", a retry notice): it is
+ * {@code UNKNOWN} and the wait keeps polling.
+ */
+public enum VersionedSettingsState {
+  NOT_FOUND,
+  UNKNOWN,
+  LOADING,
+  RUNNING_DSL,
+  APPLIED,
+  FAILED;
+
+  private static final List<String> FAILURE_PHRASES =
+      List.of("failed to apply changes", "failed to load", "compilation error");
+  private static final List<String> LOADING_WORDS =
+      List.of("loading", "resolving", "waiting", "checking", "collecting");
+
+  /** Whether a wait for any status must stop in this state. */
+  public boolean isFatal() {
+    return this == FAILED || this == NOT_FOUND;
+  }
+
+  public static VersionedSettingsState of(Response response) {
+    if (response.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
+      return NOT_FOUND;
+    }
+    if (response.getStatusCode() != HttpStatus.SC_OK) {
+      return UNKNOWN;
+    }
+    return of(response.as(VersionedSettingsStatusDto.class));
+  }
+
+  public static VersionedSettingsState of(VersionedSettingsStatusDto dto) {
+    if (dto == null) {
+      return UNKNOWN;
+    }
+    if (dto.getErrors() != null && !dto.getErrors().isBlank()) {
+      return FAILED;
+    }
+    String message = dto.getMessage() == null ? "" : dto.getMessage();
+    if (message.contains(VersionedSettingsWaitStatus.APPLIED_CHANGES.phrase())) {
+      return APPLIED;
+    }
+    if (message.contains(VersionedSettingsWaitStatus.RUNNING_DSL.phrase())) {
+      return RUNNING_DSL;
+    }
+    String lower = message.toLowerCase(Locale.ROOT);
+    if (FAILURE_PHRASES.stream().anyMatch(lower::contains)) {
+      return FAILED;
+    }
+    if (LOADING_WORDS.stream().anyMatch(lower::contains)) {
+      return LOADING;
+    }
+    return UNKNOWN;
+  }
+
+  /** The server's explanation of a {@code FAILED} state: the errors field, else the message. */
+  public static String errorText(VersionedSettingsStatusDto dto) {
+    if (dto == null) {
+      return null;
+    }
+    return dto.getErrors() != null && !dto.getErrors().isBlank()
+        ? dto.getErrors()
+        : dto.getMessage();
+  }
+}
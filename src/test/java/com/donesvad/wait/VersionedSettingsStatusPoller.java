@@ -0,0 +1,250 @@
+package com.donesvad.wait;
+
+import com.donesvad.rest.client.AuditChangeFeed;
+import com.donesvad.rest.client.TeamCityClient;
+import com.donesvad.rest.client.VersionedSettingsWaitStatus;
+import com.donesvad.rest.dto.audit.AuditEventDto;
+import com.donesvad.rest.dto.vcs.VersionedSettingsStatusDto;
+import io.restassured.response.Response;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.apachecommons.CommonsLog;
+import org.apache.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * One poller for the versioned settings status of every project tests are waiting on. Waiters
+ * register a {@code (projectId, status)} interest and get a future; a single thread polls all
+ * projects with outstanding interests on one cadence and completes each future as soon as its
+ * status matches, so N parallel imports no longer mean N polling loops.
+ *
+ * <p>TeamCity has no endpoint returning the status of several projects, so a tick sends one status
+ * request per distinct project; waiters on the same project share it. The cadence follows the
+ * shared {@link PollingStrategy}: a new interest brings the next tick forward to the strategy's
+ * first interval, and the interval then backs off while nothing new registers. While anyone waits,
+ * the poller also listens to the {@link AuditChangeFeed} and polls right away when an audit event
+ * concerns one of the awaited projects.
+ */
+@CommonsLog
+@Component
+public class VersionedSettingsStatusPoller {
+
+  private final TeamCityClient client;
+  private final PollingStrategy polling;
+  private final AuditChangeFeed auditFeed;
+  private final DslApplyTimelines timelines;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition changed = lock.newCondition();
+  private final Map<String, List<Interest>> interests = new LinkedHashMap<>();
+  private int attempt = 1;
+  private long lastTickNanos;
+  private boolean closed;
+  private AuditChangeFeed.Subscription auditEvents;
+
+  public VersionedSettingsStatusPoller(
+      TeamCityClient client,
+      PollingStrategy polling,
+      AuditChangeFeed auditFeed,
+      DslApplyTimelines timelines) {
+    this.client = client;
+    this.polling = polling;
+    this.auditFeed = auditFeed;
+    this.timelines = timelines;
+    this.lastTickNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+  }
+
+  @PostConstruct
+  public void start() {
+    Thread thread = new Thread(this::run, "tc-vs-status-poller");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Completes with the first status response showing {@code status}, with the first one in a fatal
+   * {@link VersionedSettingsState} (failed, project not found), or with the last response seen
+   * (null if none) once {@code timeout} expires.
+   */
+  public CompletableFuture<Response> await(
+      String projectId, VersionedSettingsWaitStatus status, Duration timeout) {
+    Interest interest = new Interest(status, System.nanoTime() + timeout.toNanos());
+    lock.lock();
+    try {
+      if (closed) {
+        throw new IllegalStateException("Versioned settings status poller is closed");
+      }
+      interests.computeIfAbsent(projectId, id -> new ArrayList<>()).add(interest);
+      if (auditEvents == null) {
+        auditEvents = auditFeed.subscribe(this::concernsWaitedProject, event -> pollNow());
+      }
+      attempt = 1;
+      changed.signal();
+    } finally {
+      lock.unlock();
+    }
+    return interest.result;
+  }
+
+  private boolean concernsWaitedProject(AuditEventDto event) {
+    lock.lock();
+    try {
+      return event.relatedIds().stream().anyMatch(interests::containsKey);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /** Polls all projects right away and restarts the backoff, e.g. after a relevant audit event. */
+  private void pollNow() {
+    lock.lock();
+    try {
+      attempt = 1;
+      lastTickNanos = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+      changed.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  static boolean hasStatus(Response response, VersionedSettingsWaitStatus status) {
+    if (response == null || response.getStatusCode() != HttpStatus.SC_OK) {
+      return false;
+    }
+    VersionedSettingsStatusDto dto = response.as(VersionedSettingsStatusDto.class);
+    String text = dto != null ? dto.getMessage() : null;
+    return text != null && text.contains(status.phrase());
+  }
+
+  private void run() {
+    while (true) {
+      List<String> projects;
+      lock.lock();
+      try {
+        while (!closed && interests.isEmpty()) {
+          changed.await();
+        }
+        if (closed) {
+          return;
+        }
+        long dueAt = lastTickNanos + TimeUnit.MILLISECONDS.toNanos(polling.delayMs(attempt));
+        long wait = dueAt - System.nanoTime();
+        if (wait > 0) {
+          // a registration may bring the tick forward, so re-evaluate after waking up
+          changed.awaitNanos(wait);
+          continue;
+        }
+        attempt++;
+        lastTickNanos = System.nanoTime();
+        projects = new ArrayList<>(interests.keySet());
+      } catch (InterruptedException e) {
+        return;
+      } finally {
+        lock.unlock();
+      }
+      projects.forEach(this::poll);
+    }
+  }
+
+  private void poll(String projectId) {
+    Response response;
+    try {
+      response = client.getVersionedSettingsStatusResponse(projectId);
+      timelines.observe(projectId, describe(response));
+    } catch (Exception | AssertionError e) {
+      // REST Assured rethrows I/O exceptions undeclared; the next tick tries again
+      log.warn(String.format("[StatusPoller] polling %s failed: %s", projectId, e));
+      response = null;
+    }
+    List<Interest> done = new ArrayList<>();
+    lock.lock();
+    try {
+      List<Interest> waiting = interests.getOrDefault(projectId, List.of());
+      for (Iterator<Interest> it = waiting.iterator(); it.hasNext(); ) {
+        Interest interest = it.next();
+        interest.last = response != null ? response : interest.last;
+        if (isFinal(response, interest.status)
+            || System.nanoTime() - interest.deadlineNanos >= 0) {
+          it.remove();
+          done.add(interest);
+        }
+      }
+      if (waiting.isEmpty()) {
+        interests.remove(projectId);
+      }
+      if (interests.isEmpty()) {
+        unsubscribe();
+      }
+    } finally {
+      lock.unlock();
+    }
+    done.forEach(interest -> interest.result.complete(interest.last));
+  }
+
+  /** State and server text of a status response, e.g. {@code RUNNING_DSL: Running DSL...}. */
+  private static String describe(Response response) {
+    VersionedSettingsState state = VersionedSettingsState.of(response);
+    if (response.getStatusCode() != HttpStatus.SC_OK) {
+      return state + ": HTTP " + response.getStatusCode();
+    }
+    VersionedSettingsStatusDto dto = response.as(VersionedSettingsStatusDto.class);
+    String text =
+        state == VersionedSettingsState.FAILED
+            ? VersionedSettingsState.errorText(dto)
+            : dto != null ? dto.getMessage() : null;
+    return state + ": " + (text != null ? text : response.asString());
+  }
+
+  /** The awaited status, or a state no wait can get past (see {@link VersionedSettingsState}). */
+  private static boolean isFinal(Response response, VersionedSettingsWaitStatus status) {
+    return response != null
+        && (VersionedSettingsState.of(response).isFatal() || hasStatus(response, status));
+  }
+
+  @PreDestroy
+  public void close() {
+    List<Interest> pending = new ArrayList<>();
+    lock.lock();
+    try {
+      closed = true;
+      interests.values().forEach(pending::addAll);
+      interests.clear();
+      unsubscribe();
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    pending.forEach(
+        interest ->
+            interest.result.completeExceptionally(
+                new IllegalStateException("Versioned settings status poller closed")));
+  }
+
+  private void unsubscribe() {
+    if (auditEvents != null) {
+      auditEvents.close();
+      auditEvents = null;
+    }
+  }
+
+  private static final class Interest {
+    private final VersionedSettingsWaitStatus status;
+    private final long deadlineNanos;
+    private final CompletableFuture<Response> result = new CompletableFuture<>();
+    private Response last;
+
+    private Interest(VersionedSettingsWaitStatus status, long deadlineNanos) {
+      this.status = status;
+      this.deadlineNanos = deadlineNanos;
+    }
+  }
+}
@@ -1,15 +1,16 @@
 package com.donesvad.wait;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
-import com.donesvad.rest.client.TeamCityClient;
 import com.donesvad.rest.client.VersionedSettingsWaitStatus;
 import com.donesvad.rest.dto.vcs.VersionedSettingsStatusDto;
 import com.donesvad.util.WaitPreset;
 import io.restassured.response.Response;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.apachecommons.CommonsLog;
-import org.apache.http.HttpStatus;
 import org.springframework.stereotype.Component;
 
 /**
@@ -21,53 +22,46 @@ import org.springframework.stereotype.Component;
 @RequiredArgsConstructor
 public class VersionedSettingsWaiter {
 
-  private final TeamCityClient client;
+  private final VersionedSettingsStatusPoller poller;
+  private final DslApplyTimelines timelines;
 
   /**
    * Waits until the versioned settings status contains the selected phrase. Polls REST endpoint:
    * /app/rest/projects/id:{projectId}/versionedSettings/status and returns only when the response
-   * body contains the phrase associated with the given status.
+   * body contains the phrase associated with the given status. Polling is done by the shared
+   * {@link VersionedSettingsStatusPoller}. Fails as soon as the versioned settings reach the {@link
+   * VersionedSettingsState#FAILED} state, with the server's error text, instead of at the timeout.
    */
   public void waitForVersionedSettingsStatus(
-      String projectId,
-      VersionedSettingsWaitStatus status,
-      WaitPreset timeoutMs,
-      WaitPreset pollIntervalMs) {
-    long deadline = System.currentTimeMillis() + timeoutMs.getValue();
-    Response response = null;
-    int attempt = 0;
-    while (System.currentTimeMillis() < deadline) {
-      attempt++;
-      response = client.getVersionedSettingsStatusResponse(projectId);
+      String projectId, VersionedSettingsWaitStatus status, WaitPreset timeoutMs) {
+    Response response;
+    try {
+      response = poller.await(projectId, status, Duration.ofMillis(timeoutMs.getValue())).get();
+    } catch (InterruptedException ie) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(
+          "Interrupted while waiting for versioned settings status: " + status, ie);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      timelines.finish(projectId);
+    }
+    if (VersionedSettingsStatusPoller.hasStatus(response, status)) {
       log.info(
           String.format(
-              "[waitForVersionedSettingsStatus] projectId=%s, targetStatus=%s, attempt=%d, text='%s'",
-              projectId, status.name(), attempt, response.getBody().print()));
-      if (response.getStatusCode() == HttpStatus.SC_OK) {
-        VersionedSettingsStatusDto dto = response.as(VersionedSettingsStatusDto.class);
-        String text = dto != null ? dto.getMessage() : null;
-
-        if (text != null && text.contains(status.phrase())) {
-          log.info(
-              String.format(
-                  "[waitForVersionedSettingsStatus] SUCCESS: projectId=%s reached status='%s' after %d attempts",
-                  projectId, status.phrase(), attempt));
-          return;
-        }
-      }
-      if (response.getStatusCode() == HttpStatus.SC_NOT_FOUND) {
-        break;
-      }
-
-      try {
-        Thread.sleep(pollIntervalMs.getValue());
-      } catch (InterruptedException ie) {
-        Thread.currentThread().interrupt();
-        throw new RuntimeException(
-            "Interrupted while waiting for versioned settings status: " + status, ie);
-      }
+              "[waitForVersionedSettingsStatus] SUCCESS: projectId=%s reached status='%s'",
+              projectId, status.phrase()));
+      return;
+    }
+    if (response != null && VersionedSettingsState.of(response) == VersionedSettingsState.FAILED) {
+      fail(
+          String.format(
+              "Versioned settings of project '%s' failed while waiting for status '%s': %s",
+              projectId,
+              status.phrase(),
+              VersionedSettingsState.errorText(response.as(VersionedSettingsStatusDto.class))));
     }
-    String actualMessage = (response == null ? null : response.getBody().print());
+    String actualMessage = (response == null ? null : response.asString());
     assertThat(response)
         .as(
             "Versioned settings status DTO is null after waiting for status '%s' for project '%s'",
@@ -0,0 +1,28 @@
+package com.donesvad.wait;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cuts a {@link Poller}'s sleep short, e.g. when an audit event says the awaited resource changed,
+ * so the condition is checked right away instead of at the next scheduled poll.
+ */
+public final class Wakeup {
+
+  private final Semaphore signal = new Semaphore(0);
+
+  public void signal() {
+    if (signal.availablePermits() == 0) {
+      signal.release();
+    }
+  }
+
+  /** Sleeps up to {@code nanos}; returns true if woken by {@link #signal()}. */
+  boolean sleep(long nanos) throws InterruptedException {
+    return signal.tryAcquire(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  void clear() {
+    signal.drainPermits();
+  }
+}
@@ -0,0 +1,23 @@
+import jetbrains.buildServer.configs.kotlin.*
+import jetbrains.buildServer.configs.kotlin.buildSteps.script
+
+/*
+Seed of the DSL repository served by the embedded Git server of the tests (tc.git.server.*).
+*/
+
+version = "2024.03"
+
+project {
+    buildType(Build)
+}
+
+object Build : BuildType({
+    name = "Build"
+
+    steps {
+        script {
+            name = "Hello"
+            scriptContent = "echo Hello from the DSL"
+        }
+    }
+})